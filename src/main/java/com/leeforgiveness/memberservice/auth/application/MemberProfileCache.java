@@ -0,0 +1,34 @@
+package com.leeforgiveness.memberservice.auth.application;
+
+import com.leeforgiveness.memberservice.auth.dto.MemberProfileDto;
+import com.leeforgiveness.memberservice.auth.infrastructure.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+/**
+ * uuid로 회원 정보를 읽는 read-through 캐시. 없는 uuid도 null로 캐시해 같은 uuid로 반복해서 DB를 조회하지 않는다.
+ * 인스턴스 로컬 캐시와 redis 두 단계로 캐시하고(TwoLevelCache), evict는 모든 인스턴스에 전파된다.
+ * cache manager가 트랜잭션을 인식하므로 트랜잭션 안에서 evict하면 커밋된 뒤에 지워진다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberProfileCache {
+
+    public static final String CACHE_NAME = "memberProfile";
+
+    private final MemberRepository memberRepository;
+
+    //회원이 없으면 null
+    @Cacheable(cacheNames = CACHE_NAME, key = "#uuid")
+    public MemberProfileDto findByUuid(String uuid) {
+        return memberRepository.findByUuid(uuid)
+            .map(MemberProfileDto::fromEntity)
+            .orElse(null);
+    }
+
+    @CacheEvict(cacheNames = CACHE_NAME, key = "#uuid")
+    public void evict(String uuid) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.leeforgiveness.memberservice.auth.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leeforgiveness.memberservice.auth.domain.Member;
+import com.leeforgiveness.memberservice.auth.dto.MemberProfileImageDto;
+import com.leeforgiveness.memberservice.auth.infrastructure.MemberRepository;
+import com.leeforgiveness.memberservice.common.redis.CacheInvalidationBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 회원 uuid별 프로필 이미지를 인스턴스 로컬에 캐시한다.
+ * 캐시에 없는 uuid는 한 번의 IN 쿼리로 (uuid, profileImage)만 조회하고, 없는 회원은 기본 이미지로 채운다.
+ * 프로필 이미지를 바꾸면 모든 인스턴스에서 비운다. 전파되지 못한 인스턴스는 ttl이 지나면 반영된다.
+ */
+@Component
+public class MemberProfileImageCache {
+
+    private static final String CACHE_NAME = "memberProfileImage";
+
+    private final MemberRepository memberRepository;
+    private final Cache<String, String> cache;
+    private final CacheInvalidationBroadcaster cacheInvalidationBroadcaster;
+
+    public MemberProfileImageCache(MemberRepository memberRepository,
+        CacheInvalidationBroadcaster cacheInvalidationBroadcaster, MeterRegistry meterRegistry,
+        @Value("${member.profile-image-cache.max-size:10000}") long maximumSize,
+        @Value("${member.profile-image-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.memberRepository = memberRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.cacheInvalidationBroadcaster = cacheInvalidationBroadcaster;
+        cacheInvalidationBroadcaster.register(CACHE_NAME, cache);
+    }
+
+    //memberUuids 순서대로 uuid -> 프로필 이미지. 중복된 uuid는 한 번만 담는다
+    public Map<String, String> getProfileImages(List<String> memberUuids) {
+        //찾지 못한 회원은 나중에 가입할 수 있으므로 캐시하지 않는다
+        Map<String, String> profileImages = cache.getAll(memberUuids, this::loadProfileImages);
+
+        Map<String, String> memberUuidsWithProfiles = new LinkedHashMap<>();
+        for (String memberUuid : memberUuids) {
+            memberUuidsWithProfiles.put(memberUuid,
+                profileImages.getOrDefault(memberUuid, Member.DEFAULT_PROFILE_IMAGE));
+        }
+        return memberUuidsWithProfiles;
+    }
+
+    //트랜잭션 안에서 호출되면 커밋된 뒤에 비운다. 커밋 전에 비우면 그 사이 조회가 이전 이미지를 다시 캐시한다
+    public void evict(String memberUuid) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictNow(memberUuid);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictNow(memberUuid);
+            }
+        });
+    }
+
+    private void evictNow(String memberUuid) {
+        cache.invalidate(memberUuid);
+        cacheInvalidationBroadcaster.publishEvict(CACHE_NAME, memberUuid);
+    }
+
+    private Map<String, String> loadProfileImages(Iterable<? extends String> memberUuids) {
+        List<String> missingUuids = new ArrayList<>();
+        memberUuids.forEach(missingUuids::add);
+
+        Map<String, String> profileImages = new HashMap<>();
+        for (MemberProfileImageDto memberProfileImage : memberRepository.findProfileImagesByUuidIn(
+            missingUuids)) {
+            profileImages.put(memberProfileImage.getUuid(),
+                memberProfileImage.getProfileImage() == null
+                    ? Member.DEFAULT_PROFILE_IMAGE : memberProfileImage.getProfileImage());
+        }
+        return profileImages;
+    }
+}
@@ -4,6 +4,7 @@ import com.leeforgiveness.memberservice.auth.domain.Member;
 import com.leeforgiveness.memberservice.auth.domain.SnsInfo;
 import com.leeforgiveness.memberservice.auth.domain.UserReport;
 import com.leeforgiveness.memberservice.auth.dto.MemberDetailResponseDto;
+import com.leeforgiveness.memberservice.auth.dto.MemberProfileDto;
 import com.leeforgiveness.memberservice.auth.dto.MemberReportRequestDto;
 import com.leeforgiveness.memberservice.auth.dto.MemberSnsLoginRequestDto;
 import com.leeforgiveness.memberservice.auth.dto.MemberUpdateRequestDto;
@@ -20,13 +21,14 @@ import com.leeforgiveness.memberservice.common.exception.CustomException;
 import com.leeforgiveness.memberservice.common.exception.ResponseStatus;
 import com.leeforgiveness.memberservice.common.kafka.KafkaProducerCluster;
 import com.leeforgiveness.memberservice.common.kafka.Topics.Constant;
+import com.leeforgiveness.memberservice.common.outbox.OutboxPublisher;
 import com.leeforgiveness.memberservice.common.security.JwtTokenProvider;
 import com.leeforgiveness.memberservice.subscribe.infrastructure.InfluencerSubscriptionRepository;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -45,35 +47,52 @@ public class MemberServiceImpl implements MemberService {
     private final InfluencerSubscriptionRepository influencerSubscriptionRepository;
     private final RefreshTokenCertification refreshTokenCertification;
     private final KafkaProducerCluster producer;
-
-    //이메일 중복 확인
-    private void checkEmailDuplicate(String email) {
-        if (memberRepository.findByEmail(email).isPresent()) {
-            throw new CustomException(ResponseStatus.DUPLICATE_EMAIL);
-        }
-    }
+    private final OutboxPublisher outboxPublisher;
+    private final MemberProfileImageCache memberProfileImageCache;
+    private final MemberProfileCache memberProfileCache;
 
     //휴대폰 번호 중복 확인
     private void checkPhoneNumberDuplicate(String phoneNum) {
-        if (memberRepository.findByPhoneNum(phoneNum).isPresent()) {
+        if (memberRepository.existsByPhoneNum(phoneNum)) {
             throw new CustomException(ResponseStatus.DUPLICATE_PHONE_NUMBER);
         }
     }
 
+    //가입 시 중복 확인. SNS 계정, 이메일, 휴대폰 번호 순으로 먼저 걸린 것을 알려준다
+    private void checkSignupDuplicate(SnsMemberAddRequestDto snsMemberAddRequestDto) {
+        String conflict = memberRepository.findSignupConflict(snsMemberAddRequestDto.getSnsId(),
+            snsMemberAddRequestDto.getSnsType(), snsMemberAddRequestDto.getEmail(),
+            snsMemberAddRequestDto.getPhoneNum());
+        if (conflict == null) {
+            return;
+        }
+        throw new CustomException(switch (conflict) {
+            case "SNS" -> ResponseStatus.DUPLICATED_MEMBERS;
+            case "EMAIL" -> ResponseStatus.DUPLICATE_EMAIL;
+            default -> ResponseStatus.DUPLICATE_PHONE_NUMBER;
+        });
+    }
+
+    //확인 뒤 동시에 들어온 가입이 먼저 저장된 경우. 위반한 unique 제약으로 응답을 정한다
+    private static ResponseStatus signupDuplicateStatus(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (message.contains("uk_member_email")) {
+            return ResponseStatus.DUPLICATE_EMAIL;
+        }
+        if (message.contains("uk_member_phone_num")) {
+            return ResponseStatus.DUPLICATE_PHONE_NUMBER;
+        }
+        if (message.contains("uk_sns_info_sns_id_sns_type")) {
+            return ResponseStatus.DUPLICATED_MEMBERS;
+        }
+        throw e;
+    }
+
     //SNS 회원 추가
     @Override
     @Transactional
     public void snsAddMember(SnsMemberAddRequestDto snsMemberAddRequestDto) {
-        if (snsInfoRepository.findBySnsIdAndSnsType(snsMemberAddRequestDto.getSnsId(),
-            snsMemberAddRequestDto.getSnsType()).isPresent()) {
-            throw new CustomException(ResponseStatus.DUPLICATED_MEMBERS);
-        }
-
-        //이메일 중복 확인
-        checkEmailDuplicate(snsMemberAddRequestDto.getEmail());
-
-        //휴대폰 번호 중복 확인
-        checkPhoneNumberDuplicate(snsMemberAddRequestDto.getPhoneNum());
+        checkSignupDuplicate(snsMemberAddRequestDto);
 
         String uuid = UUID.randomUUID().toString();
 
@@ -82,24 +101,26 @@ public class MemberServiceImpl implements MemberService {
             .name(snsMemberAddRequestDto.getName())
             .phoneNum(snsMemberAddRequestDto.getPhoneNum())
             .uuid(uuid)
-            .profileImage(
-                "https://ifh.cc/g/Vv1lrR.png")
+            .profileImage(Member.DEFAULT_PROFILE_IMAGE)
             .build();
 
-        memberRepository.save(member);
-
         SnsInfo snsInfo = SnsInfo.builder()
             .snsId(snsMemberAddRequestDto.getSnsId())
             .snsType(snsMemberAddRequestDto.getSnsType())
             .member(member)
             .build();
 
-        snsInfoRepository.save(snsInfo);
+        try {
+            memberRepository.save(member);
+            snsInfoRepository.save(snsInfo);
+        } catch (DataIntegrityViolationException e) {
+            throw new CustomException(signupDuplicateStatus(e));
+        }
     }
 
     //	토큰 생성
-    private String createToken(Member member) {
-        UserDetails userDetails = User.withUsername(member.getUuid()).password(member.getUuid())
+    private String createToken(String uuid) {
+        UserDetails userDetails = User.withUsername(uuid).password(uuid)
             .roles("USER").build();
         return jwtTokenProvider.generateToken(userDetails);
     }
@@ -124,7 +145,7 @@ public class MemberServiceImpl implements MemberService {
             throw new CustomException(ResponseStatus.WITHDRAWAL_MEMBERS);
         }
 
-        String token = createToken(member);
+        String token = createToken(member.getUuid());
         String refreshToken = createRefreshToken(member);
 
         refreshTokenCertification.saveRefreshToken(member.getUuid(), refreshToken);
@@ -139,14 +160,16 @@ public class MemberServiceImpl implements MemberService {
     //토큰 재발급
     @Override
     public TokenResponseDto tokenReIssue(String receiveToken, String uuid) {
-        Member member = memberRepository.findByUuid(uuid)
-            .orElseThrow(() -> new CustomException(ResponseStatus.USER_NOT_FOUND));
+        MemberProfileDto member = memberProfileCache.findByUuid(uuid);
+        if (member == null) {
+            throw new CustomException(ResponseStatus.USER_NOT_FOUND);
+        }
         if (member.isTerminationStatus()) {
             throw new CustomException(ResponseStatus.WITHDRAWAL_MEMBERS);
         }
         if (refreshTokenCertification.hasKey(uuid) && refreshTokenCertification.getRefreshToken(
             uuid).equals(receiveToken)) {
-            String token = createToken(member);
+            String token = createToken(member.getUuid());
             return TokenResponseDto.builder()
                 .accessToken(token)
                 .refreshToken(null)
@@ -160,8 +183,10 @@ public class MemberServiceImpl implements MemberService {
     //회원정보 조회
     @Override
     public MemberDetailResponseDto findMember(String uuid) {
-        Member member = memberRepository.findByUuid(uuid)
-            .orElseThrow(() -> new CustomException(ResponseStatus.NO_EXIST_MEMBERS));
+        MemberProfileDto member = memberProfileCache.findByUuid(uuid);
+        if (member == null) {
+            throw new CustomException(ResponseStatus.NO_EXIST_MEMBERS);
+        }
 
         return MemberDetailResponseDto.builder()
             .email(member.getEmail())
@@ -190,7 +215,10 @@ public class MemberServiceImpl implements MemberService {
                     .memberUuid(memberUuid)
                     .profileImage(memberUpdateRequestDto.getProfileImage())
                     .build();
-            producer.sendMessage(Constant.CHANGE_PROFILE_IMAGE, updateProfileImageRequestDto);
+            //회원정보 수정과 같은 트랜잭션에 기록하고 발행은 OutboxRelay가 한다
+            outboxPublisher.append(Constant.CHANGE_PROFILE_IMAGE, memberUuid,
+                updateProfileImageRequestDto);
+            memberProfileImageCache.evict(memberUuid);
         }
 
         memberRepository.save(Member.builder()
@@ -203,6 +231,7 @@ public class MemberServiceImpl implements MemberService {
             .terminationStatus(member.isTerminationStatus())
             .build()
         );
+        memberProfileCache.evict(memberUuid);
     }
 
     //회원 탈퇴
@@ -222,6 +251,7 @@ public class MemberServiceImpl implements MemberService {
             .profileImage(member.getProfileImage())
             .build()
         );
+        memberProfileCache.evict(uuid);
     }
 
     //회원 신고
@@ -229,8 +259,9 @@ public class MemberServiceImpl implements MemberService {
     @Transactional
     public void addReport(String uuid, MemberReportRequestDto memberReportRequestDto) {
         String reportedUuid = memberReportRequestDto.getReportedUuid();
-        memberRepository.findByUuid(reportedUuid)
-            .orElseThrow(() -> new CustomException(ResponseStatus.USER_NOT_FOUND));
+        if (memberProfileCache.findByUuid(reportedUuid) == null) {
+            throw new CustomException(ResponseStatus.USER_NOT_FOUND);
+        }
         userReportRepository.findByReporterUuidAndReportedUuid(uuid, reportedUuid)
             .ifPresent(report -> {
                 throw new CustomException(ResponseStatus.DUPLICATE_REPORT);
@@ -247,14 +278,9 @@ public class MemberServiceImpl implements MemberService {
 
     @Override
     public void searchProfileImage(SearchForChatRoomVo searchForChatRoomVo) {
-        // 스트림을 사용하여 UUID와 프로필 이미지를 매핑하여 Map을 생성
-        Map<String, String> memberUuidsWithProfiles = searchForChatRoomVo.getMemberUuids().stream()
-            .collect(Collectors.toMap(
-                uuid -> uuid,
-                uuid -> memberRepository.findByUuid(uuid)
-                    .orElseThrow(() -> new CustomException(ResponseStatus.NO_DATA))
-                    .getProfileImage()
-            ));
+        //참여자 프로필 이미지를 한 번에 조회한다. 찾지 못한 회원은 기본 이미지로 채운다
+        Map<String, String> memberUuidsWithProfiles = memberProfileImageCache.getProfileImages(
+            searchForChatRoomVo.getMemberUuids());
         MemberUuidsWithProfilesDto memberUuidsWithProfilesDto =
             MemberUuidsWithProfilesDto.builder()
                 .memberUuidsWithProfiles(memberUuidsWithProfiles)
@@ -7,10 +7,15 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(uniqueConstraints = {
+	@UniqueConstraint(name = "uk_member_email", columnNames = "email"),
+	@UniqueConstraint(name = "uk_member_phone_num", columnNames = "phone_num")})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED) //이렇게 해야지 다른 곳에서 생성자를 만들 수 없음
 public class Member {
 
+	public static final String DEFAULT_PROFILE_IMAGE = "https://ifh.cc/g/Vv1lrR.png";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Column(name = "member_id")
@@ -0,0 +1,35 @@
+package com.leeforgiveness.memberservice.auth.dto;
+
+import com.leeforgiveness.memberservice.auth.domain.Member;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+//redis 캐시에 JSON으로 저장하는 회원 정보
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MemberProfileDto {
+
+    private Long id;
+    private String uuid;
+    private String email;
+    private String name;
+    private String phoneNum;
+    private String profileImage;
+    private boolean terminationStatus;
+
+    public static MemberProfileDto fromEntity(Member member) {
+        return MemberProfileDto.builder()
+            .id(member.getId())
+            .uuid(member.getUuid())
+            .email(member.getEmail())
+            .name(member.getName())
+            .phoneNum(member.getPhoneNum())
+            .profileImage(member.getProfileImage())
+            .terminationStatus(member.isTerminationStatus())
+            .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.leeforgiveness.memberservice.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MemberProfileImageDto {
+
+    private String uuid;
+    private String profileImage;
+}
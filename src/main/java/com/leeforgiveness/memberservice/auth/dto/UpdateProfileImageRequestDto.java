@@ -1,10 +1,14 @@
 package com.leeforgiveness.memberservice.auth.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class UpdateProfileImageRequestDto {
     private String profileImage;
     private String memberUuid;
@@ -1,9 +1,12 @@
 package com.leeforgiveness.memberservice.auth.infrastructure;
 
 import com.leeforgiveness.memberservice.auth.domain.Member;
+import com.leeforgiveness.memberservice.auth.dto.MemberProfileImageDto;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -15,8 +18,24 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
 
     List<Member> findByUuidIn(List<String> uuids);
 
+    @Query("select new com.leeforgiveness.memberservice.auth.dto.MemberProfileImageDto("
+        + "m.uuid, m.profileImage) from Member m where m.uuid in :uuids")
+    List<MemberProfileImageDto> findProfileImagesByUuidIn(@Param("uuids") List<String> uuids);
+
     Optional<Member> findByPhoneNum(String phoneNum);
 
+    boolean existsByPhoneNum(String phoneNum);
+
+    //가입하려는 SNS 계정, 이메일, 휴대폰 번호 중 이미 사용 중인 것을 한 번에 확인한다. 없으면 null
+    @Query(value = "select case "
+        + "when exists (select 1 from sns_info s where s.sns_id = :snsId and s.sns_type = :snsType) "
+        + "then 'SNS' "
+        + "when exists (select 1 from member m where m.email = :email) then 'EMAIL' "
+        + "when exists (select 1 from member m where m.phone_num = :phoneNum) then 'PHONE_NUM' "
+        + "end", nativeQuery = true)
+    String findSignupConflict(@Param("snsId") String snsId, @Param("snsType") String snsType,
+        @Param("email") String email, @Param("phoneNum") String phoneNum);
+
     default Member findByUuidOrThrow(String uuid) {
         return findByUuid(uuid).orElseThrow(() -> new IllegalArgumentException("회원을 찾을 수 없습니다."));
     }
@@ -7,8 +7,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public enum ServerPath {
 
-    INFLUENCER_SUMMARISE(
-        "https://racehorseteam.store/auctionpost-service/api/v1/influencer/summarise");
+    //discovery에 인스턴스가 없을 때만 publicBaseUrl(공개 ingress)로 호출한다
+    INFLUENCER_SUMMARISE("auctionpost-service", "/api/v1/influencer/summarise",
+        "https://racehorseteam.store/auctionpost-service");
 
-    private final String url;
+    private final String serviceId;
+    private final String path;
+    private final String publicBaseUrl;
 }
@@ -0,0 +1,75 @@
+package com.leeforgiveness.memberservice.common.discovery;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * discovery에 등록된 인스턴스 중 이 인스턴스에서 진행 중인 요청이 가장 적은 곳을 고른다.
+ * 호출이 끝나면 반환받은 lease를 release해야 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServiceInstanceSelector {
+
+    private final DiscoveryClient discoveryClient;
+
+    //host:port -> 진행 중인 요청 수
+    private final Map<String, AtomicInteger> outstandingRequests = new ConcurrentHashMap<>();
+
+    //등록된 인스턴스가 없으면 null을 반환한다
+    public InstanceLease choose(String serviceId) {
+        List<ServiceInstance> instances = discoveryClient.getInstances(serviceId);
+        if (instances.isEmpty()) {
+            return null;
+        }
+
+        //진행 중인 요청 수가 같으면 한 인스턴스로 몰리지 않도록 무작위 위치부터 비교한다
+        int offset = ThreadLocalRandom.current().nextInt(instances.size());
+        ServiceInstance chosen = null;
+        AtomicInteger chosenOutstanding = null;
+        for (int i = 0; i < instances.size(); i++) {
+            ServiceInstance instance = instances.get((offset + i) % instances.size());
+            AtomicInteger outstanding = outstandingRequests.computeIfAbsent(
+                instance.getHost() + ":" + instance.getPort(), key -> new AtomicInteger());
+            if (chosenOutstanding == null || outstanding.get() < chosenOutstanding.get()) {
+                chosen = instance;
+                chosenOutstanding = outstanding;
+            }
+        }
+
+        chosenOutstanding.incrementAndGet();
+        return new InstanceLease(chosen.getUri(), chosenOutstanding);
+    }
+
+    public static class InstanceLease {
+
+        private final URI uri;
+        private final AtomicInteger outstanding;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private InstanceLease(URI uri, AtomicInteger outstanding) {
+            this.uri = uri;
+            this.outstanding = outstanding;
+        }
+
+        public URI getUri() {
+            return uri;
+        }
+
+        //여러 번 호출해도 한 번만 반영된다
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                outstanding.decrementAndGet();
+            }
+        }
+    }
+}
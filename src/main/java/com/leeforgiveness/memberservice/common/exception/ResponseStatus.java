@@ -75,6 +75,7 @@ public enum ResponseStatus {
     DATABASE_READ_FAIL(500, "데이터베이스 데이터 조회에 실패했습니다."),
     DATABASE_UPDATE_FAIL(500, "데이터베이스 데이터 수정에 실패했습니다."),
     DATABASE_INSERT_FAIL(500, "데이터베이스 데이터 삽입에 실패했습니다."),
+    TOO_MANY_INFLUENCERS(400, "한 번에 조회할 수 있는 인플루언서 수를 초과했습니다."),
 
     NO_DATA(404, "데이터가 없습니다.");
 
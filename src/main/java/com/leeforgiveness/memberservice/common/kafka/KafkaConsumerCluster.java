@@ -2,6 +2,7 @@ package com.leeforgiveness.memberservice.common.kafka;
 import com.leeforgiveness.memberservice.auth.application.MemberService;
 import com.leeforgiveness.memberservice.auth.vo.SearchForChatRoomVo;
 import com.leeforgiveness.memberservice.common.kafka.Topics.Constant;
+import com.leeforgiveness.memberservice.common.kafka.dto.NewAuctionShardDto;
 import com.leeforgiveness.memberservice.common.kafka.dto.SubscriberFilterVo;
 import com.leeforgiveness.memberservice.subscribe.application.InfluencerSubscriptionService;
 import java.util.LinkedHashMap;
@@ -64,4 +65,11 @@ public class KafkaConsumerCluster {
             );
         }
     }
-}
\ No newline at end of file
+
+    //같은 그룹의 여러 인스턴스가 파티션을 나누어 shard를 동시에 처리한다
+    @KafkaListener(topics = Constant.NEW_AUCTION_SHARD,
+        concurrency = "${subscription.fan-out.concurrency:3}")
+    public void consumeNewAuctionShard(@Payload NewAuctionShardDto newAuctionShardDto) {
+        influencerSubscriptionService.sendNewAuctionAlarmShard(newAuctionShardDto);
+    }
+}
@@ -1,4 +1,5 @@
 package com.leeforgiveness.memberservice.common.kafka;
+import com.leeforgiveness.memberservice.subscribe.application.NewAuctionFanOut.FanOutInProgressException;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -10,7 +11,9 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 @Configuration
 @EnableKafka
@@ -22,6 +25,9 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${subscription.fan-out.lease-retry-interval-ms:5000}")
+    private long leaseRetryIntervalMillis;
+
     @Bean
     public ConsumerFactory<String, Object> pushEntityConsumerFactory() {
         JsonDeserializer<Object> deserializer = gcmPushEntityJsonDeserializer();
@@ -55,6 +61,26 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(pushEntityConsumerFactory());
+        factory.setCommonErrorHandler(errorHandler());
         return factory;
     }
+
+    //다른 consumer가 fan-out lease를 잡고 있으면 lease가 풀리거나 만료될 때까지 같은 record를 다시 받는다.
+    //그 외의 예외는 기본 재시도 후 건너뛴다
+    private DefaultErrorHandler errorHandler() {
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler();
+        FixedBackOff leaseBackOff = new FixedBackOff(leaseRetryIntervalMillis,
+            FixedBackOff.UNLIMITED_ATTEMPTS);
+        errorHandler.setBackOffFunction((record, e) -> isFanOutInProgress(e) ? leaseBackOff : null);
+        return errorHandler;
+    }
+
+    private static boolean isFanOutInProgress(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof FanOutInProgressException) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
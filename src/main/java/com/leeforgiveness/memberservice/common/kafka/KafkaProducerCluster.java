@@ -14,11 +14,20 @@ public class KafkaProducerCluster {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
-    public void sendMessage(String topicName, Object object) {
-        CompletableFuture<SendResult<String, Object>> future =
-            kafkaTemplate.send(topicName, object);
+    public CompletableFuture<SendResult<String, Object>> sendMessage(String topicName,
+        Object object) {
+        return logResult(kafkaTemplate.send(topicName, object));
+    }
+
+    //같은 key는 같은 파티션으로 간다. broker 응답을 기다려야 하는 쪽은 반환된 future를 쓴다
+    public CompletableFuture<SendResult<String, Object>> sendMessage(String topicName, String key,
+        Object object) {
+        return logResult(kafkaTemplate.send(topicName, key, object));
+    }
 
-        future.whenComplete((result, ex) -> {
+    private CompletableFuture<SendResult<String, Object>> logResult(
+        CompletableFuture<SendResult<String, Object>> future) {
+        return future.whenComplete((result, ex) -> {
             if (ex == null) {
                 log.info("producer: success >>> message: {}, offset: {}",
                     result.getProducerRecord().value().toString(),
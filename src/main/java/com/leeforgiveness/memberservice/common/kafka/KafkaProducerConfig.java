@@ -21,6 +21,10 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapAddress;
 
+    //fan-out shard를 동시에 처리할 수 있는 최대 consumer 수
+    @Value("${subscription.fan-out.partitions:12}")
+    private int newAuctionShardPartitions;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -41,4 +45,12 @@ public class KafkaProducerConfig {
             .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(86400000)) // 1일 (24시간) = 86400000 밀리초
             .build();
     }
+
+    @Bean
+    public NewTopic newAuctionShardTopic() {
+        return TopicBuilder.name(Constant.NEW_AUCTION_SHARD)
+            .partitions(newAuctionShardPartitions)
+            .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(86400000))
+            .build();
+    }
 }
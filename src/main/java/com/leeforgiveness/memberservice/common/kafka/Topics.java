@@ -10,7 +10,9 @@ public enum Topics {
     SEND_TO_CHAT(Constant.SEND_TO_CHAT),
     SEND_TO_MEMBER_FOR_CREATE_CHATROOM_TOPIC(Constant.SEND_TO_MEMBER_FOR_CREATE_CHATROOM_TOPIC),
     INITIAL_AUCTION(Constant.INITIAL_AUCTION),
-    ALARM(Constant.ALARM)
+    ALARM(Constant.ALARM),
+    NEW_AUCTION_SHARD(Constant.NEW_AUCTION_SHARD),
+    SUBSCRIPTION_CHANGED(Constant.SUBSCRIPTION_CHANGED)
     ;
 
     public static class Constant {
@@ -22,6 +24,8 @@ public enum Topics {
             = "send-to-member-for-create-chatroom-topic";
         public static final String INITIAL_AUCTION = "initial-auction-topic";
         public static final String ALARM ="alarm-topic";
+        public static final String NEW_AUCTION_SHARD = "new-auction-shard-topic";
+        public static final String SUBSCRIPTION_CHANGED = "subscription-changed-topic";
     }
 
     private final String topic;
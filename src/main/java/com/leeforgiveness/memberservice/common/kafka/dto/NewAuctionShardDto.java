@@ -0,0 +1,35 @@
+package com.leeforgiveness.memberservice.common.kafka.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+//새 경매 알림 fan-out의 구독자 id 구간 하나. afterId < id < beforeId 인 구독자에게 보낸다
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class NewAuctionShardDto {
+
+	private String auctionUuid;
+	private String influencerUuid;
+	private String influencerName;
+	private int shardIndex;
+	private int shardCount;
+	private long afterId;
+	private long beforeId;
+
+	@Builder
+	public NewAuctionShardDto(String auctionUuid, String influencerUuid, String influencerName,
+		int shardIndex, int shardCount, long afterId, long beforeId) {
+		this.auctionUuid = auctionUuid;
+		this.influencerUuid = influencerUuid;
+		this.influencerName = influencerName;
+		this.shardIndex = shardIndex;
+		this.shardCount = shardCount;
+		this.afterId = afterId;
+		this.beforeId = beforeId;
+	}
+}
@@ -0,0 +1,26 @@
+package com.leeforgiveness.memberservice.common.kafka.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+//구독 상태가 실제로 바뀌었을 때 발행한다. 인플루언서 uuid를 key로 보내 인플루언서별 순서를 지킨다
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class SubscriptionChangedDto {
+
+	private String subscriberUuid;
+	private String influencerUuid;
+	private String state;
+
+	@Builder
+	public SubscriptionChangedDto(String subscriberUuid, String influencerUuid, String state) {
+		this.subscriberUuid = subscriberUuid;
+		this.influencerUuid = influencerUuid;
+		this.state = state;
+	}
+}
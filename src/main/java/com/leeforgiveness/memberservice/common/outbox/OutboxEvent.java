@@ -0,0 +1,16 @@
+package com.leeforgiveness.memberservice.common.outbox;
+
+import lombok.Builder;
+import lombok.Getter;
+
+//outbox_event 테이블의 한 행. payload는 payloadType 클래스를 JSON으로 직렬화한 값이다
+@Getter
+@Builder
+public class OutboxEvent {
+
+    private Long id;
+    private String aggregateKey;
+    private String topic;
+    private String payloadType;
+    private String payload;
+}
@@ -0,0 +1,77 @@
+package com.leeforgiveness.memberservice.common.outbox;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class OutboxEventRepository {
+
+    //relay가 여러 인스턴스에서 동시에 돌면 같은 key의 이벤트 순서가 섞이므로 한 번에 하나만 돈다
+    private static final long RELAY_LOCK_KEY = 7_283_415_001L;
+
+    private static final String INSERT_SQL = "insert into outbox_event "
+        + "(aggregate_key, topic, payload_type, payload) values (?, ?, ?, ?)";
+    private static final String FIND_BATCH_SQL = "select outbox_event_id, aggregate_key, topic, "
+        + "payload_type, payload from outbox_event order by outbox_event_id limit ?";
+    private static final String DELETE_SQL = "delete from outbox_event where outbox_event_id = ?";
+
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (rs, rowNum) -> OutboxEvent.builder()
+        .id(rs.getLong("outbox_event_id"))
+        .aggregateKey(rs.getString("aggregate_key"))
+        .topic(rs.getString("topic"))
+        .payloadType(rs.getString("payload_type"))
+        .payload(rs.getString("payload"))
+        .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<OutboxEvent> outboxEvents) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                OutboxEvent outboxEvent = outboxEvents.get(i);
+                ps.setString(1, outboxEvent.getAggregateKey());
+                ps.setString(2, outboxEvent.getTopic());
+                ps.setString(3, outboxEvent.getPayloadType());
+                ps.setString(4, outboxEvent.getPayload());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return outboxEvents.size();
+            }
+        });
+    }
+
+    //트랜잭션이 끝나면 자동으로 풀리는 advisory lock
+    public boolean tryLockRelay() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "select pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK_KEY));
+    }
+
+    public List<OutboxEvent> findBatch(int limit) {
+        return jdbcTemplate.query(FIND_BATCH_SQL, ROW_MAPPER, limit);
+    }
+
+    //보낸 행만 id로 지운다. 그 사이 커밋된 더 작은 id의 행은 다음 batch에서 보낸다
+    public void deleteAll(List<OutboxEvent> outboxEvents) {
+        jdbcTemplate.batchUpdate(DELETE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, outboxEvents.get(i).getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return outboxEvents.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.leeforgiveness.memberservice.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * kafka로 보낼 이벤트를 호출한 쪽의 DB 트랜잭션 안에서 outbox_event 테이블에 기록한다.
+ * 트랜잭션이 롤백되면 이벤트도 남지 않고, 실제 발행은 OutboxRelay가 커밋된 행을 읽어서 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    //같은 aggregateKey의 이벤트는 기록된 순서대로 같은 파티션에 발행된다
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String topic, String aggregateKey, Object payload) {
+        appendAll(topic, List.of(payload), ignored -> aggregateKey);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void appendAll(String topic, List<T> payloads, Function<T, String> keyMapper) {
+        outboxEventRepository.insertAll(payloads.stream()
+            .map(payload -> OutboxEvent.builder()
+                .aggregateKey(keyMapper.apply(payload))
+                .topic(topic)
+                .payloadType(payload.getClass().getName())
+                .payload(toJson(payload))
+                .build())
+            .toList());
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("outbox payload serialization failed", e);
+        }
+    }
+}
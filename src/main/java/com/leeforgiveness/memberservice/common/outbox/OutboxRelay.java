@@ -0,0 +1,87 @@
+package com.leeforgiveness.memberservice.common.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leeforgiveness.memberservice.common.kafka.KafkaProducerCluster;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * outbox_event에 커밋된 이벤트를 id 순으로 batch 단위로 읽어 kafka에 발행하고, broker가 받은 행만 지운다.
+ * 발행 도중 실패하면 batch 전체를 다음 주기에 다시 보내므로 consumer는 같은 이벤트를 두 번 받을 수 있다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private static final int RELAY_BATCH_SIZE = 500;
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaProducerCluster kafkaProducer;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:100}")
+    public void relay() {
+        try {
+            Integer relayedCount;
+            do {
+                relayedCount = transactionTemplate.execute(status -> relayBatch());
+            } while (relayedCount != null && relayedCount == RELAY_BATCH_SIZE);
+        } catch (Exception e) {
+            log.warn("OutboxRelay error: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        if (!outboxEventRepository.tryLockRelay()) {
+            return 0;
+        }
+
+        List<OutboxEvent> outboxEvents = outboxEventRepository.findBatch(RELAY_BATCH_SIZE);
+        if (outboxEvents.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (OutboxEvent outboxEvent : outboxEvents) {
+            Object payload = toPayload(outboxEvent);
+            if (payload != null) {
+                futures.add(kafkaProducer.sendMessage(outboxEvent.getTopic(),
+                    outboxEvent.getAggregateKey(), payload));
+            }
+        }
+
+        //모두 broker에 기록된 뒤에 지운다. 실패하면 예외로 트랜잭션이 롤백되어 행이 남는다
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("outbox relay send failed: " + e.getMessage(), e);
+        }
+
+        outboxEventRepository.deleteAll(outboxEvents);
+        return outboxEvents.size();
+    }
+
+    //역직렬화할 수 없는 행은 다시 시도해도 실패하므로 로그만 남기고 지운다
+    private Object toPayload(OutboxEvent outboxEvent) {
+        try {
+            return objectMapper.readValue(outboxEvent.getPayload(),
+                Class.forName(outboxEvent.getPayloadType()));
+        } catch (Exception e) {
+            log.error("OutboxRelay drop event: id={}, topic={}, payload={}, error={}",
+                outboxEvent.getId(), outboxEvent.getTopic(), outboxEvent.getPayload(),
+                e.getMessage());
+            return null;
+        }
+    }
+}
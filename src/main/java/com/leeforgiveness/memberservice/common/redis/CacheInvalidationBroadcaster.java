@@ -0,0 +1,70 @@
+package com.leeforgiveness.memberservice.common.redis;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * 인스턴스 로컬 캐시의 무효화를 redis 채널로 모든 인스턴스에 전파한다.
+ * 메시지는 "cacheName:key" 형태이고, key가 없으면 해당 캐시 전체를 비운다. key는 문자열이어야 한다.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBroadcaster implements MessageListener {
+
+    private static final String CHANNEL = "cache-invalidation";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Map<String, Cache<?, ?>> localCaches = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBroadcaster(StringRedisTemplate stringRedisTemplate,
+        RedisMessageListenerContainer redisMessageListenerContainer) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    public void register(String cacheName, Cache<?, ?> localCache) {
+        localCaches.put(cacheName, localCache);
+    }
+
+    public void publishEvict(String cacheName, Object key) {
+        publish(cacheName + ":" + key);
+    }
+
+    public void publishClear(String cacheName) {
+        publish(cacheName);
+    }
+
+    //전파에 실패한 인스턴스는 로컬 캐시 ttl이 지나면 반영된다
+    private void publish(String message) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception e) {
+            log.warn("CacheInvalidationBroadcaster publish error: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        String cacheName = separator < 0 ? body : body.substring(0, separator);
+        Cache<?, ?> localCache = localCaches.get(cacheName);
+        if (localCache == null) {
+            return;
+        }
+        if (separator < 0) {
+            localCache.invalidateAll();
+        } else {
+            localCache.asMap().remove(body.substring(separator + 1));
+        }
+    }
+}
@@ -1,31 +1,93 @@
 package com.leeforgiveness.memberservice.common.redis;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leeforgiveness.memberservice.auth.application.MemberProfileCache;
+import com.leeforgiveness.memberservice.auth.dto.MemberProfileDto;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.SimpleCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+@Slf4j
 @Configuration
 @EnableCaching
-public class RedisCacheConfig {
+public class RedisCacheConfig implements CachingConfigurer {
 
+    //memberProfile은 인스턴스 로컬 캐시(L1)를 앞에 두고 redis(L2)를 뒤에 둔다
     @Bean
-    public CacheManager rcm(RedisConnectionFactory cf) {
+    public CacheManager rcm(RedisConnectionFactory cf,
+        CacheInvalidationBroadcaster cacheInvalidationBroadcaster, MeterRegistry meterRegistry,
+        @Value("${member.profile-cache.local.max-size:10000}") long localMaximumSize,
+        @Value("${member.profile-cache.local.ttl-seconds:30}") long localTtlSeconds) {
         RedisCacheConfiguration redisCacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
             .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
             .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
             .entryTtl(Duration.ofMinutes(3L)); // 캐시 만료 시간은 3분
 
-        return RedisCacheManager
+        RedisCacheManager redisCacheManager = RedisCacheManager
             .RedisCacheManagerBuilder
             .fromConnectionFactory(cf)
             .cacheDefaults(redisCacheConfiguration)
+            .withCacheConfiguration(MemberProfileCache.CACHE_NAME,
+                memberProfileCacheConfiguration())
             .build();
+        //bean이 아니므로 캐시별 설정을 직접 불러온다
+        redisCacheManager.initializeCaches();
+
+        //트랜잭션 안에서의 put, evict는 TwoLevelCacheManager가 커밋된 뒤에 반영한다
+        return new TwoLevelCacheManager(redisCacheManager, Set.of(MemberProfileCache.CACHE_NAME),
+            cacheInvalidationBroadcaster, meterRegistry, localMaximumSize,
+            Duration.ofSeconds(localTtlSeconds));
+    }
+
+    //회원 정보는 JSON으로 저장한다. 없는 회원(null)은 RedisCache가 별도의 null 값으로 저장한다
+    public static RedisCacheConfiguration memberProfileCacheConfiguration() {
+        ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return RedisCacheConfiguration.defaultCacheConfig()
+            .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                new Jackson2JsonRedisSerializer<>(objectMapper, MemberProfileDto.class)))
+            .entryTtl(Duration.ofMinutes(10L));
+    }
+
+    //redis에 문제가 있어도 캐시를 건너뛰고 DB에서 읽는다
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new SimpleCacheErrorHandler() {
+            @Override
+            public void handleCacheGetError(RuntimeException exception, Cache cache, Object key) {
+                log.warn("cache get error: cache={}, {}", cache.getName(), exception.getMessage());
+            }
+
+            @Override
+            public void handleCachePutError(RuntimeException exception, Cache cache, Object key,
+                Object value) {
+                log.warn("cache put error: cache={}, {}", cache.getName(), exception.getMessage());
+            }
+
+            @Override
+            public void handleCacheEvictError(RuntimeException exception, Cache cache,
+                Object key) {
+                log.warn("cache evict error: cache={}, {}", cache.getName(),
+                    exception.getMessage());
+            }
+        };
     }
 }
@@ -0,0 +1,85 @@
+package com.leeforgiveness.memberservice.common.redis;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.util.concurrent.Callable;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * 인스턴스 로컬 Caffeine 캐시(L1) 뒤에 redis 캐시(L2)를 두는 캐시.
+ * L1에 없으면 L2에서 읽어 L1에 채우고, evict와 clear는 L2를 지운 뒤 모든 인스턴스의 L1에 전파한다.
+ * 없는 값(null)도 L1에 캐시한다.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final org.springframework.cache.Cache remote;
+    private final Cache<Object, Object> local;
+    private final CacheInvalidationBroadcaster cacheInvalidationBroadcaster;
+
+    public TwoLevelCache(org.springframework.cache.Cache remote, Cache<Object, Object> local,
+        CacheInvalidationBroadcaster cacheInvalidationBroadcaster) {
+        super(true);
+        this.remote = remote;
+        this.local = local;
+        this.cacheInvalidationBroadcaster = cacheInvalidationBroadcaster;
+        cacheInvalidationBroadcaster.register(remote.getName(), local);
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object storeValue = local.getIfPresent(key);
+        if (storeValue != null) {
+            return storeValue;
+        }
+
+        ValueWrapper valueWrapper = remote.get(key);
+        if (valueWrapper == null) {
+            return null;
+        }
+        storeValue = toStoreValue(valueWrapper.get());
+        local.put(key, storeValue);
+        return storeValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object storeValue = lookup(key);
+        if (storeValue != null) {
+            return (T) fromStoreValue(storeValue);
+        }
+
+        T value = remote.get(key, valueLoader);
+        local.put(key, toStoreValue(value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(key, toStoreValue(value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(key);
+        cacheInvalidationBroadcaster.publishEvict(getName(), key);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        cacheInvalidationBroadcaster.publishClear(getName());
+    }
+}
@@ -0,0 +1,68 @@
+package com.leeforgiveness.memberservice.common.redis;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+/**
+ * remote cache manager의 캐시 중 localCacheNames에 있는 캐시만 TwoLevelCache로 감싼다.
+ * 트랜잭션 안에서의 put, evict는 커밋된 뒤에 반영한다.
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final Set<String> localCacheNames;
+    private final CacheInvalidationBroadcaster cacheInvalidationBroadcaster;
+    private final MeterRegistry meterRegistry;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, Set<String> localCacheNames,
+        CacheInvalidationBroadcaster cacheInvalidationBroadcaster, MeterRegistry meterRegistry,
+        long localMaximumSize, Duration localTtl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localCacheNames = localCacheNames;
+        this.cacheInvalidationBroadcaster = cacheInvalidationBroadcaster;
+        this.meterRegistry = meterRegistry;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return remoteCacheManager.getCacheNames().stream()
+            .map(remoteCacheManager::getCache)
+            .filter(Objects::nonNull)
+            .map(this::withLocalCache)
+            .toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        return remote == null ? null : withLocalCache(remote);
+    }
+
+    private Cache withLocalCache(Cache remote) {
+        if (!localCacheNames.contains(remote.getName())) {
+            return remote;
+        }
+
+        //다른 인스턴스의 변경이 전파되지 못했을 때 오래된 값을 보여주는 시간은 ttl로 제한된다
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(localTtl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, remote.getName() + ".local");
+        return new TwoLevelCache(remote, local, cacheInvalidationBroadcaster);
+    }
+}
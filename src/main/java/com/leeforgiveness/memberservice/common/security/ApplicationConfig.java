@@ -1,10 +1,11 @@
 package com.leeforgiveness.memberservice.common.security;
 
-import com.leeforgiveness.memberservice.auth.infrastructure.MemberRepository;
+import com.leeforgiveness.memberservice.auth.application.MemberProfileCache;
 import com.leeforgiveness.memberservice.common.exception.ExceptionResponse;
 import com.leeforgiveness.memberservice.common.exception.CustomException;
 import com.leeforgiveness.memberservice.common.exception.ResponseStatus;
 import java.util.ArrayList;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,11 +20,11 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
-	private final MemberRepository memberRepository;
+	private final MemberProfileCache memberProfileCache;
 
 	@Bean
 	public UserDetailsService memberDetailsService() {
-		return uuid -> memberRepository.findByUuid(uuid)
+		return uuid -> Optional.ofNullable(memberProfileCache.findByUuid(uuid))
 			.map(member -> new User(
 				member.getUuid(),
 				"",
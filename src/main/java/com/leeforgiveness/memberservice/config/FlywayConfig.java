@@ -0,0 +1,19 @@
+package com.leeforgiveness.memberservice.config;
+
+import java.util.Map;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig {
+
+    //트랜잭션 advisory lock을 잡고 있으면 CREATE INDEX CONCURRENTLY가 그 트랜잭션이 끝나기를 기다리며 멈춘다
+    public static final Map<String, String> POSTGRESQL_LOCK_CONFIGURATION = Map.of(
+        "flyway.postgresql.transactional.lock", "false");
+
+    @Bean
+    public FlywayConfigurationCustomizer flywayConfigurationCustomizer() {
+        return configuration -> configuration.configuration(POSTGRESQL_LOCK_CONFIGURATION);
+    }
+}
@@ -0,0 +1,21 @@
+package com.leeforgiveness.memberservice.config;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HttpClientConfig {
+
+    //외부 서비스 호출에 쓰는 공용 client. 커넥션을 재사용해 호출마다 TLS handshake를 하지 않는다
+    @Bean
+    public HttpClient externalHttpClient(
+        @Value("${external.http.connect-timeout-ms:2000}") long connectTimeoutMillis) {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+            .build();
+    }
+}
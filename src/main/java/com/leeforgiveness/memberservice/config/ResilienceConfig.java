@@ -0,0 +1,42 @@
+package com.leeforgiveness.memberservice.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.SlidingWindowType;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ResilienceConfig {
+
+    //경매글 서비스 호출(chunk 단위)의 실패율과 느린 호출 비율이 기준을 넘으면 openWait 동안 호출하지 않는다
+    @Bean
+    public CircuitBreaker influencerSummariseCircuitBreaker(MeterRegistry meterRegistry,
+        @Value("${external.influencer-summarise.circuit-breaker.failure-rate-threshold:50}")
+        float failureRateThreshold,
+        @Value("${external.influencer-summarise.circuit-breaker.slow-call-ms:1000}")
+        long slowCallMillis,
+        @Value("${external.influencer-summarise.circuit-breaker.open-wait-ms:10000}")
+        long openWaitMillis) {
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(
+            CircuitBreakerConfig.custom()
+                .slidingWindowType(SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(50)
+                .minimumNumberOfCalls(20)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallMillis))
+                .slowCallRateThreshold(failureRateThreshold)
+                .waitDurationInOpenState(Duration.ofMillis(openWaitMillis))
+                .permittedNumberOfCallsInHalfOpenState(5)
+                .build());
+        //resilience4j.circuitbreaker.state, calls, failure.rate, slow.call.rate
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry)
+            .bindTo(meterRegistry);
+        return circuitBreakerRegistry.circuitBreaker("influencerSummarise");
+    }
+}
@@ -2,8 +2,19 @@ package com.leeforgiveness.memberservice.subscribe.application;
 
 import static com.leeforgiveness.memberservice.common.ServerPath.INFLUENCER_SUMMARISE;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.leeforgiveness.memberservice.common.discovery.ServiceInstanceSelector;
+import com.leeforgiveness.memberservice.common.discovery.ServiceInstanceSelector.InstanceLease;
 import com.leeforgiveness.memberservice.subscribe.dto.InfluencerSummaryDto;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -11,10 +22,25 @@ import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -22,38 +48,447 @@ import org.springframework.web.util.UriComponentsBuilder;
 @Service
 public class ExternalService {
 
-    private static final Duration TIMEOUT_DURATION = Duration.ofSeconds(10);
+    //p95를 믿을 수 있을 만큼 호출이 쌓이기 전에는 hedge 요청을 보내지 않는다
+    private static final long HEDGE_MIN_SAMPLES = 20;
+    //hedge 예산은 요청마다 budgetPercent씩 쌓이고 hedge 하나에 100을 쓴다. 최대 10개까지 모아 둔다
+    private static final long HEDGE_TOKEN_COST = 100;
+    private static final long HEDGE_TOKEN_CAPACITY = HEDGE_TOKEN_COST * 10;
+    private static final int DEFAULT_DECODE_QUEUE_CAPACITY = 1000;
 
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final ServiceInstanceSelector serviceInstanceSelector;
+    private final String influencerSummarisePath;
+    private final int chunkSize;
+    private final int parallelism;
+    private final CircuitBreaker circuitBreaker;
+    private final Timer latencyTimer;
+    private final boolean hedgeEnabled;
+    private final int hedgeBudgetPercent;
+    private final long hedgeMinDelayMillis;
+    private final AtomicLong hedgeTokens = new AtomicLong();
+    private final Counter hedgeSentCounter;
+    private final Counter hedgeWonCounter;
+    private final Counter hedgeThrottledCounter;
+    //응답 body는 HttpClient 스레드가 아닌 전용 스레드에서 읽는다
+    private final ExecutorService decodeExecutor;
+
+    @Autowired
+    public ExternalService(HttpClient externalHttpClient,
+        ServiceInstanceSelector serviceInstanceSelector,
+        CircuitBreaker influencerSummariseCircuitBreaker, MeterRegistry meterRegistry,
+        @Value("${external.http.request-timeout-ms:3000}") long requestTimeoutMillis,
+        @Value("${external.influencer-summarise.chunk-size:50}") int chunkSize,
+        @Value("${external.influencer-summarise.parallelism:4}") int parallelism,
+        @Value("${external.influencer-summarise.hedge.enabled:false}") boolean hedgeEnabled,
+        @Value("${external.influencer-summarise.hedge.budget-percent:10}") int hedgeBudgetPercent,
+        @Value("${external.influencer-summarise.hedge.min-delay-ms:20}") long hedgeMinDelayMillis,
+        @Value("${external.influencer-summarise.decode-threads:4}") int decodeThreads,
+        @Value("${external.influencer-summarise.decode-queue-capacity:1000}") int decodeQueueCapacity) {
+        this(externalHttpClient, Duration.ofMillis(requestTimeoutMillis),
+            serviceInstanceSelector, INFLUENCER_SUMMARISE.getPath(), chunkSize, parallelism,
+            influencerSummariseCircuitBreaker, meterRegistry, hedgeEnabled, hedgeBudgetPercent,
+            hedgeMinDelayMillis, decodeThreads, decodeQueueCapacity);
+    }
+
+    public ExternalService(HttpClient httpClient, Duration requestTimeout,
+        ServiceInstanceSelector serviceInstanceSelector, String influencerSummarisePath,
+        int chunkSize, int parallelism,
+        CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this(httpClient, requestTimeout, serviceInstanceSelector, influencerSummarisePath,
+            chunkSize, parallelism,
+            circuitBreaker, meterRegistry, false, 0, 0);
+    }
+
+    public ExternalService(HttpClient httpClient, Duration requestTimeout,
+        ServiceInstanceSelector serviceInstanceSelector, String influencerSummarisePath,
+        int chunkSize, int parallelism,
+        CircuitBreaker circuitBreaker, MeterRegistry meterRegistry, boolean hedgeEnabled,
+        int hedgeBudgetPercent, long hedgeMinDelayMillis) {
+        this(httpClient, requestTimeout, serviceInstanceSelector, influencerSummarisePath,
+            chunkSize, parallelism, circuitBreaker, meterRegistry, hedgeEnabled,
+            hedgeBudgetPercent, hedgeMinDelayMillis, parallelism, DEFAULT_DECODE_QUEUE_CAPACITY);
+    }
+
+    public ExternalService(HttpClient httpClient, Duration requestTimeout,
+        ServiceInstanceSelector serviceInstanceSelector, String influencerSummarisePath,
+        int chunkSize, int parallelism,
+        CircuitBreaker circuitBreaker, MeterRegistry meterRegistry, boolean hedgeEnabled,
+        int hedgeBudgetPercent, long hedgeMinDelayMillis, int decodeThreads,
+        int decodeQueueCapacity) {
+        this.httpClient = httpClient;
+        this.requestTimeout = requestTimeout;
+        this.serviceInstanceSelector = serviceInstanceSelector;
+        this.influencerSummarisePath = influencerSummarisePath;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.circuitBreaker = circuitBreaker;
+        this.latencyTimer = Timer.builder("external.influencer.summarise")
+            .description("influencer summarise call latency per chunk")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeBudgetPercent = hedgeBudgetPercent;
+        this.hedgeMinDelayMillis = hedgeMinDelayMillis;
+        this.hedgeSentCounter = hedgeCounter(meterRegistry, "sent");
+        this.hedgeWonCounter = hedgeCounter(meterRegistry, "won");
+        this.hedgeThrottledCounter = hedgeCounter(meterRegistry, "throttled");
+        //queue가 가득 차면 기다리지 않고 거절해 그 chunk만 조회하지 못한 것으로 처리한다
+        CustomizableThreadFactory decodeThreadFactory = new CustomizableThreadFactory(
+            "influencer-summary-decode-");
+        decodeThreadFactory.setDaemon(true);
+        this.decodeExecutor = new ThreadPoolExecutor(decodeThreads, decodeThreads,
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(decodeQueueCapacity),
+            decodeThreadFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        decodeExecutor.shutdownNow();
+    }
+
+    private static Counter hedgeCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("external.influencer.summarise.hedge")
+            .description("hedged influencer summarise requests by result")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    //반환 목록은 influencerUuids와 같은 순서, 같은 크기이고 조회하지 못한 uuid 자리는 null이다
     public List<InfluencerSummaryDto> getInfluencerSummarise(String authorization,
         List<String> influencerUuids) {
+        return getInfluencerSummariseAsync(authorization, influencerUuids).join();
+    }
+
+    //uuid를 chunkSize씩 나누어 최대 parallelism개까지 동시에 요청한다. 실패한 chunk만 null로 채운다.
+    //토큰이 거부되면 UnauthorizedException으로 실패한다
+    public CompletableFuture<List<InfluencerSummaryDto>> getInfluencerSummariseAsync(
+        String authorization, List<String> influencerUuids) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < influencerUuids.size(); from += chunkSize) {
+            chunks.add(influencerUuids.subList(from,
+                Math.min(from + chunkSize, influencerUuids.size())));
+        }
+
+        //parallelism개의 lane이 chunk를 번갈아 맡고, lane 안에서는 앞 chunk가 끝나야 다음 chunk를 보낸다
+        List<CompletableFuture<List<InfluencerSummaryDto>>> chunkFutures = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            List<String> chunk = chunks.get(i);
+            CompletableFuture<List<InfluencerSummaryDto>> chunkFuture = i < parallelism
+                ? fetchChunk(authorization, chunk)
+                : chunkFutures.get(i - parallelism)
+                    .thenCompose(ignored -> fetchChunk(authorization, chunk));
+            chunkFutures.add(chunkFuture);
+        }
+
+        return CompletableFuture.allOf(chunkFutures.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> {
+                List<InfluencerSummaryDto> influencerSummaries = new ArrayList<>();
+                chunkFutures.forEach(chunkFuture -> influencerSummaries.addAll(chunkFuture.join()));
+                return influencerSummaries;
+            });
+    }
+
+    //실패하거나 circuit이 열려 있으면 chunk 크기만큼 null로 완료된다.
+    //응답에 uuid가 없고 개수도 달라 대응시킬 수 없으면 chunk를 반으로 나눠 다시 요청해, 빠진 uuid 자리만 null로 남긴다.
+    //4xx 응답은 요청 쪽 문제이므로 circuit breaker에는 성공으로 기록한다.
+    //401, 403은 다른 토큰으로 다시 요청할 수 있도록 UnauthorizedException으로 실패시킨다.
+    //body를 다 읽기까지 requestTimeout을 넘기면 timeout으로 보고 circuit breaker 실패로 센다
+    private CompletableFuture<List<InfluencerSummaryDto>> fetchChunk(String authorization,
+        List<String> influencerUuids) {
+        List<InfluencerSummaryDto> unavailable = Collections.nCopies(influencerUuids.size(), null);
+        String pathAndQuery;
         try {
-            String url = UriComponentsBuilder.fromHttpUrl(INFLUENCER_SUMMARISE.getUrl())
+            pathAndQuery = UriComponentsBuilder.fromPath(influencerSummarisePath)
                 .queryParam("influencerUuids", influencerUuids)
                 .toUriString();
+        } catch (RuntimeException e) {
+            log.info("getInfluencerSummarise error: {}", e.getMessage());
+            return CompletableFuture.completedFuture(unavailable);
+        }
+
+        //circuit이 열려 있으면 기다리지 않고 바로 실패한다
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.debug("getInfluencerSummarise rejected: circuit {}", circuitBreaker.getState());
+            return CompletableFuture.completedFuture(unavailable);
+        }
+
+        long startedAt = System.nanoTime();
+        CompletableFuture<HttpResponse<InputStream>> sent;
+        CompletableFuture<List<InfluencerSummaryDto>> response;
+        try {
+            sent = sendHedged(authorization, pathAndQuery);
+            response = sent
+                .thenApply(httpResponse -> {
+                    int statusCode = httpResponse.statusCode();
+                    if (statusCode >= 500) {
+                        closeQuietly(httpResponse.body());
+                        throw new ServerErrorException(statusCode);
+                    }
+                    if (statusCode == 401 || statusCode == 403) {
+                        closeQuietly(httpResponse.body());
+                        throw new UnauthorizedException(statusCode);
+                    }
+                    if (statusCode >= 400) {
+                        closeQuietly(httpResponse.body());
+                        log.info("getInfluencerSummarise rejected: status {}", statusCode);
+                        return null;
+                    }
+                    return httpResponse.body();
+                })
+                .thenApplyAsync(responseBody -> responseBody == null
+                    ? null : decodeInfluencerSummaries(responseBody), decodeExecutor)
+                .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            circuitBreaker.releasePermission();
+            log.info("getInfluencerSummarise error: {}", e.getMessage());
+            return CompletableFuture.completedFuture(unavailable);
+        }
+
+        return response.handle((influencerSummaries, e) -> {
+            long elapsedNanos = System.nanoTime() - startedAt;
+            latencyTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            if (e != null) {
+                //timeout이나 거절로 끝까지 읽지 못한 body를 닫아 읽던 스레드와 연결을 놓아준다
+                sent.thenAccept(httpResponse -> closeQuietly(httpResponse.body()));
+            }
+            if (e != null && unwrap(e) instanceof UnauthorizedException unauthorized) {
+                circuitBreaker.onSuccess(elapsedNanos, TimeUnit.NANOSECONDS);
+                log.info("getInfluencerSummarise rejected: {}", unauthorized.getMessage());
+                return CompletableFuture.<List<InfluencerSummaryDto>>failedFuture(unauthorized);
+            }
+            if (e != null) {
+                if (isFailure(e)) {
+                    circuitBreaker.onError(elapsedNanos, TimeUnit.NANOSECONDS, e);
+                } else {
+                    circuitBreaker.releasePermission();
+                }
+                log.info("getInfluencerSummarise error: {}", e.getMessage());
+                return CompletableFuture.completedFuture(unavailable);
+            }
+            circuitBreaker.onSuccess(elapsedNanos, TimeUnit.NANOSECONDS);
+            if (influencerSummaries == null) {
+                return CompletableFuture.completedFuture(unavailable);
+            }
+
+            List<InfluencerSummaryDto> matched = match(influencerUuids, influencerSummaries);
+            if (matched != null) {
+                return CompletableFuture.completedFuture(matched);
+            }
+            log.warn("influencer summary size mismatch: requested={}, received={}",
+                influencerUuids.size(), influencerSummaries.size());
+            if (influencerUuids.size() == 1) {
+                return CompletableFuture.completedFuture(unavailable);
+            }
+            return fetchHalves(authorization, influencerUuids);
+        }).thenCompose(Function.identity());
+    }
+
+    //응답에 uuid가 있으면 uuid로, 없으면 개수가 같을 때만 요청 순서로 대응시킨다. 대응시킬 수 없으면 null
+    private static List<InfluencerSummaryDto> match(List<String> influencerUuids,
+        List<InfluencerSummaryDto> influencerSummaries) {
+        if (influencerSummaries.stream()
+            .allMatch(influencerSummary -> influencerSummary.getInfluencerUuid() != null)) {
+            Map<String, InfluencerSummaryDto> summariesByUuid = influencerSummaries.stream()
+                .collect(Collectors.toMap(InfluencerSummaryDto::getInfluencerUuid,
+                    Function.identity(), (first, second) -> first));
+            return influencerUuids.stream().map(summariesByUuid::get).toList();
+        }
+        if (influencerSummaries.size() != influencerUuids.size()) {
+            return null;
+        }
+
+        List<InfluencerSummaryDto> matched = new ArrayList<>();
+        for (int i = 0; i < influencerUuids.size(); i++) {
+            matched.add(influencerSummaries.get(i).withInfluencerUuid(influencerUuids.get(i)));
+        }
+        return matched;
+    }
+
+    //같은 lane 안에서 앞쪽 절반이 끝난 뒤 뒤쪽 절반을 보낸다
+    private CompletableFuture<List<InfluencerSummaryDto>> fetchHalves(String authorization,
+        List<String> influencerUuids) {
+        int middle = influencerUuids.size() / 2;
+        return fetchChunk(authorization, influencerUuids.subList(0, middle))
+            .thenCompose(front -> fetchChunk(authorization,
+                influencerUuids.subList(middle, influencerUuids.size()))
+                .thenApply(back -> {
+                    List<InfluencerSummaryDto> influencerSummaries = new ArrayList<>(front);
+                    influencerSummaries.addAll(back);
+                    return influencerSummaries;
+                }));
+    }
+
+    //5xx 응답과 timeout, 연결 실패 같은 I/O 오류만 서버 장애로 보고 circuit breaker 실패로 센다.
+    //응답 body 형식이 잘못된 경우는 서버가 응답한 것이므로 세지 않는다
+    private static boolean isFailure(Throwable e) {
+        Throwable cause = unwrap(e);
+        if (cause instanceof UncheckedIOException) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof JsonProcessingException) {
+            return false;
+        }
+        return cause instanceof ServerErrorException || cause instanceof IOException
+            || cause instanceof TimeoutException;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    //p95 안에 응답이 없으면 같은 요청을 한 번 더 보내 먼저 성공한 응답을 쓰고 나머지는 취소한다.
+    //circuit breaker와 latency timer에는 둘을 합쳐 한 번의 호출로 기록된다
+    private CompletableFuture<HttpResponse<InputStream>> sendHedged(String authorization,
+        String pathAndQuery) {
+        CompletableFuture<HttpResponse<InputStream>> primary = send(authorization, pathAndQuery);
+        if (!hedgeEnabled) {
+            return primary;
+        }
+        hedgeTokens.accumulateAndGet(hedgeBudgetPercent,
+            (tokens, deposit) -> Math.min(tokens + deposit, HEDGE_TOKEN_CAPACITY));
+        long hedgeDelayMillis = hedgeDelayMillis();
+        if (hedgeDelayMillis <= 0) {
+            return primary;
+        }
+
+        CompletableFuture<HttpResponse<InputStream>> result = new CompletableFuture<>();
+        //아직 끝나지 않은 시도 수. 모두 실패해야 마지막 실패로 완료된다
+        AtomicInteger outstanding = new AtomicInteger(1);
+        AtomicReference<Throwable> lastError = new AtomicReference<>();
+        race(primary, result, outstanding, lastError, false);
+        CompletableFuture.delayedExecutor(hedgeDelayMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            outstanding.incrementAndGet();
+            if (result.isDone()) {
+                return;
+            }
+            if (!tryWithdrawHedgeToken()) {
+                hedgeThrottledCounter.increment();
+                release(result, outstanding, lastError);
+                return;
+            }
+            hedgeSentCounter.increment();
+            race(send(authorization, pathAndQuery), result, outstanding, lastError, true);
+        });
+        return result;
+    }
 
+    //보낼 때마다 진행 중인 요청이 가장 적은 인스턴스를 고른다. hedge 요청은 보통 다른 인스턴스로 간다
+    private CompletableFuture<HttpResponse<InputStream>> send(String authorization,
+        String pathAndQuery) {
+        InstanceLease lease = serviceInstanceSelector.choose(INFLUENCER_SUMMARISE.getServiceId());
+        String baseUrl = lease == null
+            ? INFLUENCER_SUMMARISE.getPublicBaseUrl() : lease.getUri().toString();
+
+        CompletableFuture<HttpResponse<InputStream>> response;
+        try {
             HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
+                .uri(URI.create(baseUrl + pathAndQuery))
+                .timeout(requestTimeout)
                 .header("Content-Type", "application/json")
                 .header("Authorization", authorization)
                 .GET()
                 .build();
+            response = httpClient.sendAsync(request, BodyHandlers.ofInputStream());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
 
-            HttpClient client = HttpClient.newBuilder().connectTimeout(TIMEOUT_DURATION).build();
-            HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
-            String responseBody = response.body();
-            JSONArray jsonArray = new JSONArray(responseBody);
+        if (lease != null) {
+            //응답 헤더를 받거나 실패, 취소되면 반납한다
+            response.whenComplete((ignored, e) -> lease.release());
+        }
+        return response;
+    }
 
-            List<InfluencerSummaryDto> influencerSummaries = new ArrayList<>();
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JSONObject jsonObject = jsonArray.getJSONObject(i);
-                InfluencerSummaryDto influencerSummary = InfluencerSummaryDto.fromJson(jsonObject);
-                influencerSummaries.add(influencerSummary);
+    private void race(CompletableFuture<HttpResponse<InputStream>> attempt,
+        CompletableFuture<HttpResponse<InputStream>> result, AtomicInteger outstanding,
+        AtomicReference<Throwable> lastError, boolean hedge) {
+        attempt.whenComplete((httpResponse, e) -> {
+            if (e == null) {
+                if (result.complete(httpResponse)) {
+                    if (hedge) {
+                        hedgeWonCounter.increment();
+                    }
+                } else {
+                    //늦게 끝난 쪽의 응답은 읽지 않고 닫는다
+                    closeQuietly(httpResponse.body());
+                }
+            } else {
+                lastError.set(e);
+                if (outstanding.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
             }
-            log.info("Influencer summaries: {}", influencerSummaries);
+        });
+        //먼저 끝난 쪽이 있으면 나머지 요청은 취소한다
+        result.whenComplete((ignored, e) -> attempt.cancel(true));
+    }
+
+    //hedge를 보내지 않기로 했으면 primary 결과만으로 완료될 수 있게 한다
+    private void release(CompletableFuture<HttpResponse<InputStream>> result,
+        AtomicInteger outstanding, AtomicReference<Throwable> lastError) {
+        if (outstanding.decrementAndGet() == 0 && !result.isDone()) {
+            result.completeExceptionally(lastError.get());
+        }
+    }
+
+    private boolean tryWithdrawHedgeToken() {
+        long tokens;
+        do {
+            tokens = hedgeTokens.get();
+            if (tokens < HEDGE_TOKEN_COST) {
+                return false;
+            }
+        } while (!hedgeTokens.compareAndSet(tokens, tokens - HEDGE_TOKEN_COST));
+        return true;
+    }
+
+    //관측한 p95. 호출이 충분히 쌓이지 않았으면 0을 반환한다
+    private long hedgeDelayMillis() {
+        if (latencyTimer.count() < HEDGE_MIN_SAMPLES) {
+            return 0;
+        }
+        for (ValueAtPercentile valueAtPercentile : latencyTimer.takeSnapshot().percentileValues()) {
+            if (valueAtPercentile.percentile() == 0.95) {
+                long p95Millis = (long) valueAtPercentile.value(TimeUnit.MILLISECONDS);
+                return p95Millis <= 0 ? 0 : Math.max(p95Millis, hedgeMinDelayMillis);
+            }
+        }
+        return 0;
+    }
+
+    private static void closeQuietly(InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            log.debug("close response body error: {}", e.getMessage());
+        }
+    }
+
+    private List<InfluencerSummaryDto> decodeInfluencerSummaries(InputStream responseBody) {
+        try (responseBody) {
+            List<InfluencerSummaryDto> influencerSummaries = InfluencerSummaryDecoder.decode(
+                responseBody);
+            log.debug("Influencer summaries: {}", influencerSummaries.size());
             return influencerSummaries;
-        } catch (InterruptedException | IOException | RuntimeException e) {
-            log.info("getInfluencerSummarise error: {}", e.getMessage());
-            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class ServerErrorException extends RuntimeException {
+
+        private ServerErrorException(int statusCode) {
+            super("influencer summarise status " + statusCode);
+        }
+    }
+
+    //토큰이 거부된 경우. 같은 uuid를 다른 토큰으로 다시 요청할 수 있다
+    public static class UnauthorizedException extends RuntimeException {
+
+        public UnauthorizedException(int statusCode) {
+            super("influencer summarise status " + statusCode);
         }
     }
 }
@@ -1,11 +1,15 @@
 package com.leeforgiveness.memberservice.subscribe.application;
 
 import com.leeforgiveness.memberservice.common.kafka.dto.AlarmDto;
+import com.leeforgiveness.memberservice.common.kafka.dto.NewAuctionShardDto;
 import com.leeforgiveness.memberservice.common.kafka.dto.SubscriberFilterVo;
 import com.leeforgiveness.memberservice.subscribe.dto.InfluencerSubscribeRequestDto;
 import com.leeforgiveness.memberservice.subscribe.vo.IsSubscribedRequestVo;
 import com.leeforgiveness.memberservice.subscribe.vo.SubscribedInfluencerRequestVo;
+import com.leeforgiveness.memberservice.subscribe.vo.SubscriptionStatesRequestVo;
 import com.leeforgiveness.memberservice.subscribe.dto.SubscribedInfluencerResponseDto;
+import java.util.Map;
+import reactor.core.publisher.Mono;
 
 public interface InfluencerSubscriptionService {
 
@@ -16,7 +20,19 @@ public interface InfluencerSubscriptionService {
     SubscribedInfluencerResponseDto getSubscriptionInfos(
         SubscribedInfluencerRequestVo subscribedInfluencerRequestVo);
 
+    Mono<SubscribedInfluencerResponseDto> getSubscriptionInfosReactive(
+        SubscribedInfluencerRequestVo subscribedInfluencerRequestVo);
+
     Boolean isSubscribed(IsSubscribedRequestVo isSubscribedRequestVo);
 
+    Map<String, Boolean> getSubscriptionStates(
+        SubscriptionStatesRequestVo subscriptionStatesRequestVo);
+
+    Long getSubscriberCount(String influencerUuid);
+
+    void flushPendingSubscriptions();
+
     void sendNewAuctionAlarmToSubscriber(SubscriberFilterVo subscriberFilterVo);
+
+    void sendNewAuctionAlarmShard(NewAuctionShardDto newAuctionShardDto);
 }
@@ -6,151 +6,399 @@ import com.leeforgiveness.memberservice.common.kafka.EventType;
 import com.leeforgiveness.memberservice.common.kafka.KafkaProducerCluster;
 import com.leeforgiveness.memberservice.common.kafka.Topics.Constant;
 import com.leeforgiveness.memberservice.common.kafka.dto.AlarmDto;
+import com.leeforgiveness.memberservice.common.kafka.dto.NewAuctionShardDto;
 import com.leeforgiveness.memberservice.common.kafka.dto.SubscriberFilterVo;
+import com.leeforgiveness.memberservice.common.kafka.dto.SubscriptionChangedDto;
+import com.leeforgiveness.memberservice.common.outbox.OutboxPublisher;
 import com.leeforgiveness.memberservice.subscribe.domain.InfluencerSubscription;
 import com.leeforgiveness.memberservice.subscribe.dto.InfluencerSubscribeRequestDto;
 import com.leeforgiveness.memberservice.subscribe.dto.InfluencerSummaryDto;
 import com.leeforgiveness.memberservice.subscribe.dto.SubscribedInfluencerResponseDto;
+import com.leeforgiveness.memberservice.subscribe.dto.SubscriberCursorDto;
 import com.leeforgiveness.memberservice.subscribe.infrastructure.InfluencerSubscriptionRepository;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriberCounter;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriberIndex;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriptionBloomFilter;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriptionWriteBuffer;
 import com.leeforgiveness.memberservice.subscribe.state.SubscribeState;
 import com.leeforgiveness.memberservice.subscribe.vo.IsSubscribedRequestVo;
 import com.leeforgiveness.memberservice.subscribe.vo.SubscribedInfluencerRequestVo;
-import java.util.ArrayList;
+import com.leeforgiveness.memberservice.subscribe.vo.SubscriptionStatesRequestVo;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class InfluencerSubscriptionServiceImpl implements InfluencerSubscriptionService {
 
+    private static final int ALARM_CHUNK_SIZE = 1000;
+    private static final int MAX_SUBSCRIPTION_STATES = 100;
+    private static final int DEFAULT_SUBSCRIPTION_PAGE_SIZE = 20;
+    private static final int MAX_SUBSCRIPTION_PAGE_SIZE = 100;
+
     private final InfluencerSubscriptionRepository influencerSubscriptionRepository;
-    private final ExternalService externalService;
+    private final InfluencerSummaryCache influencerSummaryCache;
     private final KafkaProducerCluster kafkaProducer;
+    private final SubscriberIndex subscriberIndex;
+    private final SubscriptionBloomFilter subscriptionBloomFilter;
+    private final SubscriberCounter subscriberCounter;
+    private final SubscriptionWriteBuffer subscriptionWriteBuffer;
+    private final NewAuctionFanOut newAuctionFanOut;
+    private final OutboxPublisher outboxPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    //구독
+    //구독. 조회 없이 upsert 한 번으로 처리해 동시에 구독해도 행이 중복되지 않는다.
+    //DB와 outbox 쓰기만 트랜잭션으로 묶고, redis 반영은 커밋된 뒤에 한다
     @Override
-    @Transactional
     public void subscribe(InfluencerSubscribeRequestDto influencerSubscribeRequestDto) {
         String subscriberUuid = influencerSubscribeRequestDto.getSubscriberUuid();
         String influencerUuid = influencerSubscribeRequestDto.getInfluencerUuid();
 
-        Optional<InfluencerSubscription> subscriptionOptional = getSubscription(
-            subscriberUuid, influencerUuid);
+        //write-behind 모드는 트랜잭션을 열지 않는다
+        if (subscriptionWriteBuffer.isEnabled()) {
+            changeSubscriptionState(subscriberUuid, influencerUuid, SubscribeState.SUBSCRIBE,
+                ResponseStatus.DUPLICATE_SUBSCRIBE);
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Optional<Boolean> inserted;
+            try {
+                inserted = this.influencerSubscriptionRepository.upsertSubscribe(subscriberUuid,
+                    influencerUuid);
+            } catch (Exception e) {
+                throw new CustomException(ResponseStatus.DATABASE_INSERT_FAIL);
+            }
+
+            //반환된 행이 없으면 이전 상태가 이미 SUBSCRIBE였다
+            if (inserted.isEmpty()) {
+                throw new CustomException(ResponseStatus.DUPLICATE_SUBSCRIBE);
+            }
+
+            appendSubscriptionChanged(subscriberUuid, influencerUuid, SubscribeState.SUBSCRIBE);
+        });
+        onSubscriptionChanged(subscriberUuid, influencerUuid, SubscribeState.SUBSCRIBE);
+    }
+
+    @Override
+    public void unsubscribe(InfluencerSubscribeRequestDto influencerSubscribeRequestDto) {
+        String subscriberUuid = influencerSubscribeRequestDto.getSubscriberUuid();
+        String influencerUuid = influencerSubscribeRequestDto.getInfluencerUuid();
+
+        if (subscriptionWriteBuffer.isEnabled()) {
+            changeSubscriptionState(subscriberUuid, influencerUuid, SubscribeState.UNSUBSCRIBE,
+                ResponseStatus.UNSUBSCRIBED_SELLER);
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            int updatedCount;
+            try {
+                updatedCount = this.influencerSubscriptionRepository.unsubscribeIfSubscribed(
+                    subscriberUuid, influencerUuid);
+            } catch (Exception e) {
+                throw new CustomException(ResponseStatus.DATABASE_UPDATE_FAIL);
+            }
+
+            //구독한 적이 없거나 이미 구독 취소한 경우
+            if (updatedCount == 0) {
+                throw new CustomException(ResponseStatus.UNSUBSCRIBED_SELLER);
+            }
+
+            appendSubscriptionChanged(subscriberUuid, influencerUuid, SubscribeState.UNSUBSCRIBE);
+        });
+        onSubscriptionChanged(subscriberUuid, influencerUuid, SubscribeState.UNSUBSCRIBE);
+    }
 
-        if (subscriptionOptional.isEmpty()) {
-            newSubscribe(InfluencerSubscription.builder()
+    //구독 상태 변경과 같은 트랜잭션에서 outbox에 기록한다
+    private void appendSubscriptionChanged(String subscriberUuid, String influencerUuid,
+        SubscribeState state) {
+        outboxPublisher.append(Constant.SUBSCRIPTION_CHANGED, influencerUuid,
+            SubscriptionChangedDto.builder()
                 .subscriberUuid(subscriberUuid)
                 .influencerUuid(influencerUuid)
+                .state(state.name())
                 .build());
-        } else if (subscriptionOptional.get().getState() == SubscribeState.SUBSCRIBE) {
-            throw new CustomException(ResponseStatus.DUPLICATE_SUBSCRIBE);
-        } else if (subscriptionOptional.get().getState() == SubscribeState.UNSUBSCRIBE) {
-            resubscribe(subscriptionOptional.get());
+    }
+
+    //write-behind 모드에서는 버퍼에만 기록하고 바로 응답한다. DB와 redis 반영은 flush 때 한다
+    private void changeSubscriptionState(String subscriberUuid, String influencerUuid,
+        SubscribeState state, ResponseStatus unchangedStatus) {
+        boolean changed = subscriptionWriteBuffer.change(subscriberUuid, influencerUuid, state,
+            () -> isSubscribedFromStore(subscriberUuid, influencerUuid)
+                ? SubscribeState.SUBSCRIBE : SubscribeState.UNSUBSCRIBE);
+        if (!changed) {
+            throw new CustomException(unchangedStatus);
         }
     }
 
-    private void resubscribe(InfluencerSubscription influencerSubscription) {
-        InfluencerSubscription updateInfluencerSubscription = InfluencerSubscription.builder()
-            .id(influencerSubscription.getId())
-            .subscriberUuid(influencerSubscription.getSubscriberUuid())
-            .influencerUuid(influencerSubscription.getInfluencerUuid())
-            .state(SubscribeState.SUBSCRIBE)
-            .build();
-        try {
-            this.influencerSubscriptionRepository.save(updateInfluencerSubscription);
-        } catch (Exception e) {
-            throw new CustomException(ResponseStatus.DATABASE_UPDATE_FAIL);
+    //버퍼에 모인 구독 상태를 DB에 쓰고, 실제로 바뀐 구독만 redis와 bloom filter에 반영한다
+    @Override
+    public void flushPendingSubscriptions() {
+        int flushedCount = subscriptionWriteBuffer.flush(pendingSubscription ->
+            onSubscriptionChanged(pendingSubscription.getSubscriberUuid(),
+                pendingSubscription.getInfluencerUuid(), pendingSubscription.getState()));
+        if (flushedCount > 0) {
+            log.info(">>>> flushPendingSubscriptions: {} subscriptions", flushedCount);
+        }
+    }
+
+    //구독 상태가 바뀐 뒤 bloom filter, 구독 인덱스, 구독자 수에 반영한다
+    private void onSubscriptionChanged(String subscriberUuid, String influencerUuid,
+        SubscribeState state) {
+        if (state == SubscribeState.SUBSCRIBE) {
+            subscriptionBloomFilter.put(subscriberUuid, influencerUuid);
         }
+        updateSubscriberIndex(subscriberUuid, influencerUuid, state);
+        updateSubscriberCount(influencerUuid, state);
     }
 
-    private void newSubscribe(InfluencerSubscription newInfluencerSubscription) {
+    private void updateSubscriberCount(String influencerUuid, SubscribeState state) {
         try {
-            this.influencerSubscriptionRepository.save(newInfluencerSubscription);
+            if (state == SubscribeState.SUBSCRIBE) {
+                subscriberCounter.increment(influencerUuid);
+            } else {
+                subscriberCounter.decrement(influencerUuid);
+            }
         } catch (Exception e) {
-            throw new CustomException(ResponseStatus.DATABASE_INSERT_FAIL);
+            //정각마다 도는 재집계에서 맞춰진다
+            log.warn("updateSubscriberCount error: {}", e.getMessage());
         }
     }
 
-    @Override
-    @Transactional
-    public void unsubscribe(InfluencerSubscribeRequestDto influencerSubscribeRequestDto) {
-        String subscriberUuid = influencerSubscribeRequestDto.getSubscriberUuid();
-        String influencerUuid = influencerSubscribeRequestDto.getInfluencerUuid();
-
-        Optional<InfluencerSubscription> subscriptionOptional = getSubscription(
-            subscriberUuid, influencerUuid);
-
-        if (subscriptionOptional.isEmpty()
-            || subscriptionOptional.get().getState() == SubscribeState.UNSUBSCRIBE) {
-            throw new CustomException(ResponseStatus.UNSUBSCRIBED_SELLER);
-        } else if (subscriptionOptional.get().getState() == SubscribeState.SUBSCRIBE) {
-            InfluencerSubscription influencerSubscription = subscriptionOptional.get();
+    //구독 인덱스 갱신에 실패하면 재구축 전까지 인덱스를 사용하지 않는다
+    private void updateSubscriberIndex(String subscriberUuid, String influencerUuid,
+        SubscribeState state) {
+        try {
+            if (state == SubscribeState.SUBSCRIBE) {
+                subscriberIndex.add(subscriberUuid, influencerUuid);
+            } else {
+                subscriberIndex.remove(subscriberUuid, influencerUuid);
+            }
+        } catch (Exception e) {
+            log.warn("updateSubscriberIndex error: {}", e.getMessage());
             try {
-                this.influencerSubscriptionRepository.save(InfluencerSubscription.builder()
-                    .id(influencerSubscription.getId())
-                    .subscriberUuid(influencerSubscription.getSubscriberUuid())
-                    .influencerUuid(influencerSubscription.getInfluencerUuid())
-                    .state(SubscribeState.UNSUBSCRIBE)
-                    .build()
-                );
-            } catch (Exception e) {
-                throw new CustomException(ResponseStatus.DATABASE_UPDATE_FAIL);
+                subscriberIndex.markNotReady();
+            } catch (Exception markException) {
+                log.warn("markNotReady error: {}", markException.getMessage());
             }
         }
     }
 
-    //구독 조회
+    //구독 조회. 최근 구독 순으로 size 만큼 조회하고, 해당 페이지의 인플루언서 정보만 가져온다
     @Override
     @Transactional(readOnly = true)
     public SubscribedInfluencerResponseDto getSubscriptionInfos(
         SubscribedInfluencerRequestVo subscribedInfluencerRequestVo) {
 
-        List<InfluencerSubscription> influencerSubscriptions = new ArrayList<>();
+        int size = subscriptionPageSize(subscribedInfluencerRequestVo.getSize());
+        List<InfluencerSubscription> influencerSubscriptions = findSubscriptionPage(
+            subscribedInfluencerRequestVo, size);
+        if (influencerSubscriptions.isEmpty()) {
+            return null;
+        }
+
+        List<InfluencerSummaryDto> influencerSummaryDtos = influencerSummaryCache.getInfluencerSummarise(
+            subscribedInfluencerRequestVo.getAuthorization(),
+            influencerUuids(influencerSubscriptions, size));
+
+        return subscriptionInfos(influencerSubscriptions, size, influencerSummaryDtos);
+    }
+
+    //getSubscriptionInfos와 같은 응답. DB 조회는 boundedElastic에서 실행하고, 인플루언서 정보는
+    //요청 스레드를 잡지 않고 기다린다. 구독이 없으면 비어 있는 Mono를 반환한다
+    @Override
+    public Mono<SubscribedInfluencerResponseDto> getSubscriptionInfosReactive(
+        SubscribedInfluencerRequestVo subscribedInfluencerRequestVo) {
+
+        int size = subscriptionPageSize(subscribedInfluencerRequestVo.getSize());
+        return Mono.fromCallable(() -> findSubscriptionPage(subscribedInfluencerRequestVo, size))
+            .subscribeOn(Schedulers.boundedElastic())
+            .filter(influencerSubscriptions -> !influencerSubscriptions.isEmpty())
+            .flatMap(influencerSubscriptions -> Mono.fromFuture(
+                    () -> influencerSummaryCache.getInfluencerSummariseAsync(
+                        subscribedInfluencerRequestVo.getAuthorization(),
+                        influencerUuids(influencerSubscriptions, size)))
+                .map(influencerSummaryDtos -> subscriptionInfos(influencerSubscriptions,
+                    size, influencerSummaryDtos)));
+    }
+
+    //다음 페이지가 있는지 알기 위해 size보다 하나 더 조회한다
+    private List<InfluencerSubscription> findSubscriptionPage(
+        SubscribedInfluencerRequestVo subscribedInfluencerRequestVo, int size) {
+        Long cursor = subscribedInfluencerRequestVo.getCursor() == null
+            ? Long.MAX_VALUE : subscribedInfluencerRequestVo.getCursor();
 
         try {
-            influencerSubscriptions = this.influencerSubscriptionRepository.findBySubscriberUuidAndState(
-                subscribedInfluencerRequestVo.getSubscriberUuid(),
-                SubscribeState.SUBSCRIBE
-            );
+            return this.influencerSubscriptionRepository
+                .findBySubscriberUuidAndStateAndIdLessThanOrderByIdDesc(
+                    subscribedInfluencerRequestVo.getSubscriberUuid(),
+                    SubscribeState.SUBSCRIBE,
+                    cursor,
+                    PageRequest.of(0, size + 1)
+                );
         } catch (Exception e) {
             log.info("error: {}", e.getMessage());
             throw new CustomException(ResponseStatus.DATABASE_READ_FAIL);
         }
+    }
 
-        if (influencerSubscriptions.isEmpty()) {
-            return null;
-        }
-
-        List<String> influencerUuids = influencerSubscriptions.stream()
-            .map(InfluencerSubscription::getInfluencerUuid).toList();
+    private static List<String> influencerUuids(
+        List<InfluencerSubscription> influencerSubscriptions, int size) {
+        return influencerSubscriptions.stream()
+            .limit(size)
+            .map(InfluencerSubscription::getInfluencerUuid)
+            .toList();
+    }
 
-        List<InfluencerSummaryDto> influencerSummaryDtos = externalService.getInfluencerSummarise(
-            subscribedInfluencerRequestVo.getAuthorization(), influencerUuids);
-
-        if (influencerSummaryDtos.isEmpty()) {
-            return null;
-        }
+    //인플루언서 정보를 하나도 가져오지 못해도 다음 페이지로 넘어갈 수 있도록 nextCursor는 항상 채운다
+    private static SubscribedInfluencerResponseDto subscriptionInfos(
+        List<InfluencerSubscription> influencerSubscriptions, int size,
+        List<InfluencerSummaryDto> influencerSummaryDtos) {
+        Long nextCursor = influencerSubscriptions.size() > size
+            ? influencerSubscriptions.get(size - 1).getId() : null;
 
         return SubscribedInfluencerResponseDto.builder()
             .influencerSummaries(influencerSummaryDtos)
+            .nextCursor(nextCursor)
             .build();
     }
 
+    private int subscriptionPageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_SUBSCRIPTION_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_SUBSCRIPTION_PAGE_SIZE);
+    }
+
+    //아직 DB에 쓰지 않은 구독 상태가 있으면 그 상태를 반환한다
     @Override
-    @Transactional(readOnly = true)
     public Boolean isSubscribed(IsSubscribedRequestVo isSubscribedRequestVo) {
+        String memberUuid = isSubscribedRequestVo.getMemberUuid();
+        String influencerUuid = isSubscribedRequestVo.getInfluencerUuid();
+
+        Optional<SubscribeState> pendingState = subscriptionWriteBuffer.getPendingState(
+            memberUuid, influencerUuid);
+        if (pendingState.isPresent()) {
+            return pendingState.get() == SubscribeState.SUBSCRIBE;
+        }
+
+        return isSubscribedFromStore(memberUuid, influencerUuid);
+    }
+
+    //bloom filter에 없으면 바로 false, 인덱스가 준비되어 있으면 DB를 거치지 않고 redis에서 확인한다
+    private boolean isSubscribedFromStore(String memberUuid, String influencerUuid) {
+        if (!subscriptionBloomFilter.mightContain(memberUuid, influencerUuid)) {
+            return false;
+        }
+
+        boolean subscribed = isSubscribedFromIndexOrDatabase(memberUuid, influencerUuid);
+        if (!subscribed) {
+            subscriptionBloomFilter.recordFalsePositive();
+        }
+        return subscribed;
+    }
+
+    private boolean isSubscribedFromIndexOrDatabase(String memberUuid, String influencerUuid) {
+        try {
+            Optional<Boolean> indexed = subscriberIndex.isMember(memberUuid, influencerUuid);
+            if (indexed.isPresent()) {
+                return indexed.get();
+            }
+        } catch (Exception e) {
+            log.warn("isSubscribed index error: {}", e.getMessage());
+        }
+
         Optional<InfluencerSubscription> subscriptionOptional = getSubscription(
-            isSubscribedRequestVo.getMemberUuid(), isSubscribedRequestVo.getInfluencerUuid());
+            memberUuid, influencerUuid);
 
         return subscriptionOptional.isPresent()
             && subscriptionOptional.get().getState() != SubscribeState.UNSUBSCRIBE;
     }
 
+    //여러 인플루언서의 구독 여부를 IN 쿼리 한 번으로 조회한다
+    @Override
+    public Map<String, Boolean> getSubscriptionStates(
+        SubscriptionStatesRequestVo subscriptionStatesRequestVo) {
+        String memberUuid = subscriptionStatesRequestVo.getMemberUuid();
+        Set<String> influencerUuids = new LinkedHashSet<>(
+            subscriptionStatesRequestVo.getInfluencerUuids());
+
+        if (influencerUuids.size() > MAX_SUBSCRIPTION_STATES) {
+            throw new CustomException(ResponseStatus.TOO_MANY_INFLUENCERS);
+        }
+
+        //bloom filter에서 걸러진 인플루언서는 조회하지 않는다
+        List<String> candidateUuids = influencerUuids.stream()
+            .filter(influencerUuid -> subscriptionBloomFilter.mightContain(memberUuid,
+                influencerUuid))
+            .toList();
+
+        Set<String> subscribedUuids = new HashSet<>();
+        if (!candidateUuids.isEmpty()) {
+            try {
+                subscribedUuids.addAll(influencerSubscriptionRepository.findInfluencerUuidsIn(
+                    memberUuid, SubscribeState.SUBSCRIBE, candidateUuids));
+            } catch (Exception e) {
+                log.info("error: {}", e.getMessage());
+                throw new CustomException(ResponseStatus.DATABASE_READ_FAIL);
+            }
+        }
+
+        Map<String, Boolean> subscriptionStates = new LinkedHashMap<>();
+        for (String influencerUuid : influencerUuids) {
+            Optional<SubscribeState> pendingState = subscriptionWriteBuffer.getPendingState(
+                memberUuid, influencerUuid);
+            subscriptionStates.put(influencerUuid, pendingState
+                .map(state -> state == SubscribeState.SUBSCRIBE)
+                .orElseGet(() -> subscribedUuids.contains(influencerUuid)));
+        }
+        return subscriptionStates;
+    }
+
+    //redis에 집계된 구독자 수를 반환하고, 없으면 DB에서 한 번 세어 채운다
+    @Override
+    public Long getSubscriberCount(String influencerUuid) {
+        try {
+            Long subscriberCount = subscriberCounter.getCount(influencerUuid);
+            if (subscriberCount != null) {
+                return subscriberCount;
+            }
+        } catch (Exception e) {
+            log.warn("getSubscriberCount error: {}", e.getMessage());
+        }
+
+        long subscriberCount;
+        try {
+            subscriberCount = influencerSubscriptionRepository.countByInfluencerUuidAndState(
+                influencerUuid, SubscribeState.SUBSCRIBE);
+        } catch (Exception e) {
+            throw new CustomException(ResponseStatus.DATABASE_READ_FAIL);
+        }
+
+        try {
+            subscriberCounter.putIfAbsent(influencerUuid, subscriberCount);
+        } catch (Exception e) {
+            log.warn("getSubscriberCount cache error: {}", e.getMessage());
+        }
+        return subscriberCount;
+    }
+
     private Optional<InfluencerSubscription> getSubscription(
         String subscriberUuid, String influencerUuid) {
         try {
@@ -161,20 +409,115 @@ public class InfluencerSubscriptionServiceImpl implements InfluencerSubscription
         }
     }
 
+    //구독자를 ALARM_CHUNK_SIZE 단위로 나누어 알림 메시지를 보낸다. 구독자가 많으면 shard로 나누어 발행한다.
+    //같은 경매 메시지가 다시 전달되면 끝난 fan-out은 건너뛰고, 중간에 실패한 fan-out은 이어서 보낸다.
+    //다른 consumer가 보내는 중이면 begin이 던지는 예외로 재전달받는다
     @Override
     public void sendNewAuctionAlarmToSubscriber(SubscriberFilterVo subscriberFilterVo) {
-        List<InfluencerSubscription> influencerSubscriptions = influencerSubscriptionRepository.findByInfluencerUuidAndState(
-            subscriberFilterVo.getInfluencerUuid(), SubscribeState.SUBSCRIBE);
+        String fanOutKey = subscriberFilterVo.getAuctionUuid();
+        String leaseToken = newAuctionFanOut.begin(fanOutKey);
+        if (leaseToken == null) {
+            return;
+        }
 
-        if (influencerSubscriptions.isEmpty()) {
-            log.info(">>>> sendNewAuctionAlarmToSubscriber: no subscriber");
+        boolean completed = false;
+        try {
+            long afterId = newAuctionFanOut.resumeAfterId(fanOutKey, 0L);
+            //이미 일부를 보낸 fan-out은 shard로 나누지 않고 이어서 보낸다
+            if (afterId == 0L
+                && shouldShardNewAuctionAlarm(subscriberFilterVo.getInfluencerUuid())) {
+                int shardCount = newAuctionFanOut.dispatch(subscriberFilterVo);
+                if (shardCount > 0) {
+                    completed = true;
+                    log.info(">>>> sendNewAuctionAlarmToSubscriber: auctionUuid={}, shards={}",
+                        subscriberFilterVo.getAuctionUuid(), shardCount);
+                    return;
+                }
+            }
+
+            int receiverCount = sendNewAuctionAlarmInRange(fanOutKey, leaseToken,
+                subscriberFilterVo, afterId, Long.MAX_VALUE);
+            completed = true;
+
+            if (receiverCount == 0) {
+                log.info(">>>> sendNewAuctionAlarmToSubscriber: no subscriber");
+                return;
+            }
+
+            log.info(">>>> sendNewAuctionAlarmToSubscriber: auctionUuid={}, receivers={}",
+                subscriberFilterVo.getAuctionUuid(), receiverCount);
+        } finally {
+            newAuctionFanOut.finish(fanOutKey, leaseToken, completed);
+        }
+    }
+
+    private boolean shouldShardNewAuctionAlarm(String influencerUuid) {
+        try {
+            return newAuctionFanOut.shouldShard(getSubscriberCount(influencerUuid));
+        } catch (Exception e) {
+            log.warn("shouldShardNewAuctionAlarm error: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    //shard 구간의 구독자에게 알림 메시지를 보내고 완료를 기록한다
+    @Override
+    public void sendNewAuctionAlarmShard(NewAuctionShardDto newAuctionShardDto) {
+        String fanOutKey = NewAuctionFanOut.shardKey(newAuctionShardDto.getAuctionUuid(),
+            newAuctionShardDto.getShardIndex());
+        String leaseToken = newAuctionFanOut.begin(fanOutKey);
+        if (leaseToken == null) {
             return;
         }
 
-        List<String> receiverUuids = influencerSubscriptions.stream()
-            .map(InfluencerSubscription::getSubscriberUuid).toList();
+        boolean completed = false;
+        try {
+            int receiverCount = sendNewAuctionAlarmInRange(fanOutKey, leaseToken,
+                SubscriberFilterVo.builder()
+                    .auctionUuid(newAuctionShardDto.getAuctionUuid())
+                    .influencerUuid(newAuctionShardDto.getInfluencerUuid())
+                    .influencerName(newAuctionShardDto.getInfluencerName())
+                    .build(),
+                newAuctionFanOut.resumeAfterId(fanOutKey, newAuctionShardDto.getAfterId()),
+                newAuctionShardDto.getBeforeId());
+            completed = true;
+            newAuctionFanOut.completeShard(newAuctionShardDto, receiverCount);
+        } finally {
+            newAuctionFanOut.finish(fanOutKey, leaseToken, completed);
+        }
+    }
+
+    //afterId < id < beforeId 구간의 구독자를 id 순으로 chunk 단위로 보내고,
+    //broker가 chunk를 받은 뒤에 checkpoint를 남긴다
+    private int sendNewAuctionAlarmInRange(String fanOutKey, String leaseToken,
+        SubscriberFilterVo subscriberFilterVo, long afterId, long beforeId) {
+        long lastId = afterId;
+        int receiverCount = 0;
+        List<SubscriberCursorDto> subscriberChunk;
+
+        do {
+            subscriberChunk = influencerSubscriptionRepository.findSubscriberChunkInRange(
+                subscriberFilterVo.getInfluencerUuid(), SubscribeState.SUBSCRIBE, lastId,
+                beforeId, PageRequest.of(0, ALARM_CHUNK_SIZE));
+
+            if (subscriberChunk.isEmpty()) {
+                break;
+            }
+
+            NewAuctionFanOut.awaitSent(List.of(sendNewAuctionAlarm(subscriberFilterVo,
+                subscriberChunk.stream().map(SubscriberCursorDto::getSubscriberUuid).toList())));
+
+            lastId = subscriberChunk.get(subscriberChunk.size() - 1).getId();
+            receiverCount += subscriberChunk.size();
+            newAuctionFanOut.checkpoint(fanOutKey, leaseToken, lastId);
+        } while (subscriberChunk.size() == ALARM_CHUNK_SIZE);
+
+        return receiverCount;
+    }
 
-        kafkaProducer.sendMessage(Constant.ALARM, AlarmDto.builder()
+    private CompletableFuture<?> sendNewAuctionAlarm(SubscriberFilterVo subscriberFilterVo,
+        List<String> receiverUuids) {
+        return kafkaProducer.sendMessage(Constant.ALARM, AlarmDto.builder()
             .uuid(subscriberFilterVo.getAuctionUuid())
             .receiverUuids(receiverUuids)
             .eventType(EventType.AUCTION_POST_DETAIL.getType())
@@ -0,0 +1,303 @@
+package com.leeforgiveness.memberservice.subscribe.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leeforgiveness.memberservice.subscribe.dto.InfluencerSummaryDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 인플루언서 uuid별 이름과 프로필 이미지를 인스턴스 로컬에 캐시한다.
+ * 캐시에 없는 uuid만 경매글 서비스에 요청하고, 결과는 요청한 uuid 순서대로 합쳐 반환한다. 조회하지 못한 uuid는 빠진다.
+ * 같은 uuid를 동시에 조회하면 누가 요청했든 진행 중인 요청 하나를 같이 기다리고, 짧은 batch window 동안 여러 요청의
+ * uuid를 모아 한 번에 요청한다. 모은 요청은 서비스 토큰이 설정되어 있으면 그것으로, 없으면 batch를 연 요청의 토큰으로 보낸다.
+ * 그 토큰이 거부되면 같이 기다리던 요청은 각자의 토큰으로 자기 uuid만 다시 조회한다.
+ * 경매글 서비스가 실패하거나 circuit이 열려 있으면 만료된 뒤에도 staleTtl 동안 보관하는 마지막 조회 결과로 응답한다.
+ */
+@Slf4j
+@Component
+public class InfluencerSummaryCache {
+
+    private static final String CACHE_NAME = "influencerSummary";
+
+    private final ExternalService externalService;
+    private final Cache<String, InfluencerSummaryDto> cache;
+    //cache에서 만료된 항목도 staleTtl 동안 남겨 두는 마지막 조회 결과
+    private final Cache<String, InfluencerSummaryDto> lastKnown;
+    private final Counter staleCounter;
+    private final long batchWindowMillis;
+    private final int maxBatchSize;
+    //비어 있으면 batch를 연 요청의 토큰으로 보낸다
+    private final String serviceAuthorization;
+
+    //uuid -> 진행 중인 조회. 조회하지 못하면 null로, 토큰이 거부되면 RejectedAuthorizationException으로 완료된다
+    private final Map<String, CompletableFuture<InfluencerSummaryDto>> inflight =
+        new ConcurrentHashMap<>();
+    private final Object batchLock = new Object();
+    //window 동안 모으는 batch
+    private PendingBatch pendingBatch;
+
+    public InfluencerSummaryCache(ExternalService externalService, MeterRegistry meterRegistry,
+        @Value("${subscription.summary-cache.max-size:10000}") long maximumSize,
+        @Value("${subscription.summary-cache.ttl-seconds:600}") long ttlSeconds,
+        @Value("${subscription.summary-cache.stale-ttl-seconds:86400}") long staleTtlSeconds,
+        @Value("${subscription.summary-batch.window-ms:5}") long batchWindowMillis,
+        @Value("${subscription.summary-batch.max-size:100}") int maxBatchSize,
+        @Value("${subscription.summary-batch.service-authorization:}") String serviceAuthorization) {
+        this.externalService = externalService;
+        this.batchWindowMillis = batchWindowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.serviceAuthorization = serviceAuthorization;
+        //크기를 넘으면 W-TinyLFU로 자주 쓰이지 않는 항목부터 내보낸다
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        this.lastKnown = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(staleTtlSeconds))
+            .build();
+        this.staleCounter = Counter.builder("cache.stale.served")
+            .description("influencer summaries served from last known values")
+            .tag("cache", CACHE_NAME)
+            .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+            .description("influencer summary cache hit ratio")
+            .tag("cache", CACHE_NAME)
+            .register(meterRegistry);
+    }
+
+    public List<InfluencerSummaryDto> getInfluencerSummarise(String authorization,
+        List<String> influencerUuids) {
+        return getInfluencerSummariseAsync(authorization, influencerUuids).join();
+    }
+
+    //캐시에 모두 있으면 이미 완료된 future를 반환한다
+    public CompletableFuture<List<InfluencerSummaryDto>> getInfluencerSummariseAsync(
+        String authorization, List<String> influencerUuids) {
+        Map<String, InfluencerSummaryDto> summaries = new HashMap<>(
+            cache.getAllPresent(influencerUuids));
+        List<String> missingUuids = influencerUuids.stream()
+            .filter(influencerUuid -> !summaries.containsKey(influencerUuid))
+            .distinct()
+            .toList();
+        if (missingUuids.isEmpty()) {
+            return CompletableFuture.completedFuture(ordered(influencerUuids, summaries));
+        }
+
+        Map<String, CompletableFuture<InfluencerSummaryDto>> futures = new LinkedHashMap<>();
+        for (String influencerUuid : missingUuids) {
+            futures.put(influencerUuid, inflight.computeIfAbsent(influencerUuid,
+                key -> enqueue(authorization, key)));
+            //computeIfAbsent 안에서 보내면 완료 처리가 inflight를 다시 건드리므로 밖에서 보낸다
+            flushFullBatch();
+        }
+
+        //토큰 거부로 실패한 future도 기다린 뒤 결과를 모은다
+        CompletableFuture<?>[] settled = futures.values().stream()
+            .map(future -> future.handle((influencerSummary, e) -> null))
+            .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(settled).thenCompose(ignored -> {
+            List<String> retryUuids = new ArrayList<>();
+            futures.forEach((influencerUuid, future) -> {
+                if (!future.isCompletedExceptionally()) {
+                    InfluencerSummaryDto influencerSummary = future.join();
+                    if (influencerSummary != null) {
+                        summaries.put(influencerUuid, influencerSummary);
+                    }
+                } else if (isRejectedForOther(future, authorization)) {
+                    retryUuids.add(influencerUuid);
+                } else {
+                    putLastKnown(summaries, influencerUuid);
+                }
+            });
+            if (retryUuids.isEmpty()) {
+                return CompletableFuture.completedFuture(ordered(influencerUuids, summaries));
+            }
+            return fetchWithOwnAuthorization(authorization, retryUuids, summaries)
+                .thenApply(fetched -> ordered(influencerUuids, summaries));
+        });
+    }
+
+    //다른 토큰으로 보낸 요청이 거부된 경우에만 요청한 회원의 토큰으로 다시 조회한다
+    private static boolean isRejectedForOther(CompletableFuture<InfluencerSummaryDto> future,
+        String authorization) {
+        try {
+            future.join();
+            return false;
+        } catch (CompletionException e) {
+            return e.getCause() instanceof RejectedAuthorizationException rejected
+                && !Objects.equals(rejected.authorization, authorization);
+        }
+    }
+
+    //batch에 묶지 않고 요청한 회원의 토큰으로 uuid를 다시 조회해 summaries에 채운다
+    private CompletableFuture<Void> fetchWithOwnAuthorization(String authorization,
+        List<String> influencerUuids, Map<String, InfluencerSummaryDto> summaries) {
+        CompletableFuture<List<InfluencerSummaryDto>> response;
+        try {
+            response = externalService.getInfluencerSummariseAsync(authorization, influencerUuids);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.handle((fetched, e) -> {
+            if (e != null) {
+                log.info("influencer summary retry error: {}", e.getMessage());
+            }
+            for (int i = 0; i < influencerUuids.size(); i++) {
+                String influencerUuid = influencerUuids.get(i);
+                InfluencerSummaryDto influencerSummary = e == null ? fetched.get(i) : null;
+                if (influencerSummary != null) {
+                    cache.put(influencerUuid, influencerSummary);
+                    lastKnown.put(influencerUuid, influencerSummary);
+                    summaries.put(influencerUuid, influencerSummary);
+                } else {
+                    putLastKnown(summaries, influencerUuid);
+                }
+            }
+            return null;
+        });
+    }
+
+    private void putLastKnown(Map<String, InfluencerSummaryDto> summaries, String influencerUuid) {
+        InfluencerSummaryDto influencerSummary = lastKnown.getIfPresent(influencerUuid);
+        if (influencerSummary != null) {
+            staleCounter.increment();
+            summaries.put(influencerUuid, influencerSummary);
+        }
+    }
+
+    private static List<InfluencerSummaryDto> ordered(List<String> influencerUuids,
+        Map<String, InfluencerSummaryDto> summaries) {
+        return influencerUuids.stream()
+            .map(summaries::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    private CompletableFuture<InfluencerSummaryDto> enqueue(String authorization,
+        String influencerUuid) {
+        CompletableFuture<InfluencerSummaryDto> future = new CompletableFuture<>();
+        synchronized (batchLock) {
+            if (pendingBatch == null) {
+                PendingBatch newBatch = new PendingBatch(
+                    serviceAuthorization.isBlank() ? authorization : serviceAuthorization);
+                pendingBatch = newBatch;
+                CompletableFuture.delayedExecutor(batchWindowMillis, TimeUnit.MILLISECONDS)
+                    .execute(() -> flush(newBatch));
+            }
+            pendingBatch.futures.put(influencerUuid, future);
+        }
+        return future;
+    }
+
+    private void flushFullBatch() {
+        PendingBatch batch;
+        synchronized (batchLock) {
+            batch = pendingBatch;
+            if (batch == null || batch.futures.size() < maxBatchSize) {
+                return;
+            }
+        }
+        flush(batch);
+    }
+
+    private void flush(PendingBatch batch) {
+        synchronized (batchLock) {
+            //batch가 가득 차서 이미 보낸 경우
+            if (pendingBatch != batch) {
+                return;
+            }
+            pendingBatch = null;
+        }
+
+        List<String> influencerUuids = new ArrayList<>(batch.futures.keySet());
+        try {
+            externalService.getInfluencerSummariseAsync(batch.authorization, influencerUuids)
+                .whenComplete((fetched, e) -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof ExternalService.UnauthorizedException) {
+                        reject(batch, influencerUuids);
+                    } else {
+                        complete(batch, influencerUuids, e == null ? fetched : null);
+                    }
+                });
+        } catch (RuntimeException e) {
+            log.warn("influencer summary batch error: {}", e.getMessage());
+            complete(batch, influencerUuids, null);
+        }
+    }
+
+    //fetched는 influencerUuids와 같은 순서이고, 조회하지 못한 자리는 null이다.
+    //null은 캐시하지 않고 마지막 조회 결과가 있으면 그것으로 응답한다
+    private void complete(PendingBatch batch, List<String> influencerUuids,
+        List<InfluencerSummaryDto> fetched) {
+        for (int i = 0; i < influencerUuids.size(); i++) {
+            String influencerUuid = influencerUuids.get(i);
+            CompletableFuture<InfluencerSummaryDto> future = batch.futures.get(influencerUuid);
+            InfluencerSummaryDto influencerSummary = fetched == null ? null : fetched.get(i);
+            if (influencerSummary != null) {
+                cache.put(influencerUuid, influencerSummary);
+                lastKnown.put(influencerUuid, influencerSummary);
+            } else {
+                influencerSummary = lastKnown.getIfPresent(influencerUuid);
+                if (influencerSummary != null) {
+                    staleCounter.increment();
+                }
+            }
+            //완료를 기다리던 요청이 바로 다시 조회해도 끝난 future를 받지 않도록 먼저 뺀다
+            inflight.remove(influencerUuid, future);
+            future.complete(influencerSummary);
+        }
+    }
+
+    //batch를 보낸 토큰이 거부되면 기다리던 요청이 각자의 토큰으로 다시 조회하도록 실패시킨다
+    private void reject(PendingBatch batch, List<String> influencerUuids) {
+        RejectedAuthorizationException rejected =
+            new RejectedAuthorizationException(batch.authorization);
+        for (String influencerUuid : influencerUuids) {
+            CompletableFuture<InfluencerSummaryDto> future = batch.futures.get(influencerUuid);
+            inflight.remove(influencerUuid, future);
+            future.completeExceptionally(rejected);
+        }
+    }
+
+    private static class RejectedAuthorizationException extends RuntimeException {
+
+        private final String authorization;
+
+        private RejectedAuthorizationException(String authorization) {
+            super("influencer summary batch authorization rejected", null, false, false);
+            this.authorization = authorization;
+        }
+    }
+
+    private static class PendingBatch {
+
+        private final String authorization;
+        private final Map<String, CompletableFuture<InfluencerSummaryDto>> futures =
+            new LinkedHashMap<>();
+
+        private PendingBatch(String authorization) {
+            this.authorization = authorization;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.leeforgiveness.memberservice.subscribe.application;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.leeforgiveness.memberservice.subscribe.dto.InfluencerSummaryDto;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 인플루언서 요약 응답([{"influencerUuid": ..., "name": ..., "profileImage": ...}, ...])을
+ * 응답 body stream에서 바로 읽어 InfluencerSummaryDto로 만든다. influencerUuid가 없으면 null로 둔다.
+ * body 전체를 문자열이나 JSON 트리로 올리지 않는다.
+ */
+public final class InfluencerSummaryDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private InfluencerSummaryDecoder() {
+    }
+
+    public static List<InfluencerSummaryDto> decode(InputStream inputStream) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "influencer summaries must be an array");
+            }
+
+            List<InfluencerSummaryDto> influencerSummaries = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "influencer summary must be an object");
+                }
+                influencerSummaries.add(decodeSummary(parser));
+            }
+            return influencerSummaries;
+        }
+    }
+
+    private static InfluencerSummaryDto decodeSummary(JsonParser parser) throws IOException {
+        String influencerUuid = null;
+        String name = null;
+        String profileImage = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case "influencerUuid" -> influencerUuid = parser.getValueAsString();
+                case "name" -> name = parser.getValueAsString();
+                case "profileImage" -> profileImage = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        return new InfluencerSummaryDto(influencerUuid, name, profileImage);
+    }
+}
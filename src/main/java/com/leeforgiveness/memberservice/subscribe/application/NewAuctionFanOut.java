@@ -0,0 +1,180 @@
+package com.leeforgiveness.memberservice.subscribe.application;
+
+import com.leeforgiveness.memberservice.common.kafka.KafkaProducerCluster;
+import com.leeforgiveness.memberservice.common.kafka.Topics.Constant;
+import com.leeforgiveness.memberservice.common.kafka.dto.NewAuctionShardDto;
+import com.leeforgiveness.memberservice.common.kafka.dto.SubscriberFilterVo;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.FanOutTracker;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.InfluencerSubscriptionRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 구독자가 많은 인플루언서의 새 경매 알림을 구독자 id 구간(shard)으로 나누어 NEW_AUCTION_SHARD 토픽에 발행한다.
+ * shard는 여러 인스턴스의 consumer가 나누어 처리하고, 모든 shard가 끝나면 FanOutTracker가 완료를 기록한다.
+ * 경매와 shard는 각각 한 번만 끝까지 보내도록 lease와 checkpoint로 관리한다.
+ */
+@Slf4j
+@Component
+public class NewAuctionFanOut {
+
+    //redis를 쓸 수 없을 때 lease 없이 진행하기 위한 token
+    private static final String NO_LEASE = "";
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+
+    private final InfluencerSubscriptionRepository influencerSubscriptionRepository;
+    private final KafkaProducerCluster kafkaProducer;
+    private final FanOutTracker fanOutTracker;
+    private final int shardSize;
+    private final long shardThreshold;
+
+    public NewAuctionFanOut(InfluencerSubscriptionRepository influencerSubscriptionRepository,
+        KafkaProducerCluster kafkaProducer, FanOutTracker fanOutTracker,
+        @Value("${subscription.fan-out.shard-size:10000}") int shardSize,
+        @Value("${subscription.fan-out.shard-threshold:20000}") long shardThreshold) {
+        this.influencerSubscriptionRepository = influencerSubscriptionRepository;
+        this.kafkaProducer = kafkaProducer;
+        this.fanOutTracker = fanOutTracker;
+        this.shardSize = shardSize;
+        this.shardThreshold = shardThreshold;
+    }
+
+    public boolean shouldShard(long subscriberCount) {
+        return subscriberCount >= shardThreshold;
+    }
+
+    //shard를 발행하고 shard 수를 반환한다. broker가 모든 shard를 받기 전에는 반환하지 않고,
+    //하나라도 실패하면 예외를 던져 경매 fan-out이 완료로 표시되지 않고 재전달되도록 한다
+    public int dispatch(SubscriberFilterVo subscriberFilterVo) {
+        List<Long> foundStartIds = influencerSubscriptionRepository.findShardStartIds(
+            subscriberFilterVo.getInfluencerUuid(), shardSize);
+        if (foundStartIds.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> shardStartIds = fanOutTracker.start(subscriberFilterVo.getAuctionUuid(),
+            foundStartIds);
+        int shardCount = shardStartIds.size();
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+            long beforeId = shardIndex + 1 < shardCount
+                ? shardStartIds.get(shardIndex + 1) : Long.MAX_VALUE;
+            //shard마다 key가 달라 파티션에 고르게 퍼진다
+            futures.add(kafkaProducer.sendMessage(Constant.NEW_AUCTION_SHARD,
+                shardKey(subscriberFilterVo.getAuctionUuid(), shardIndex),
+                NewAuctionShardDto.builder()
+                    .auctionUuid(subscriberFilterVo.getAuctionUuid())
+                    .influencerUuid(subscriberFilterVo.getInfluencerUuid())
+                    .influencerName(subscriberFilterVo.getInfluencerName())
+                    .shardIndex(shardIndex)
+                    .shardCount(shardCount)
+                    .afterId(shardStartIds.get(shardIndex) - 1)
+                    .beforeId(beforeId)
+                    .build()));
+        }
+        awaitSent(futures);
+        return shardCount;
+    }
+
+    public void completeShard(NewAuctionShardDto newAuctionShardDto, int receiverCount) {
+        String auctionUuid = newAuctionShardDto.getAuctionUuid();
+        try {
+            long startedAt = fanOutTracker.completeShard(auctionUuid,
+                newAuctionShardDto.getShardIndex(), receiverCount);
+            if (startedAt >= 0) {
+                log.info(">>>> new auction fan-out completed: auctionUuid={}, shards={}, "
+                        + "receivers={}, elapsedMs={}", auctionUuid,
+                    newAuctionShardDto.getShardCount(),
+                    fanOutTracker.getReceiverCount(auctionUuid),
+                    System.currentTimeMillis() - startedAt);
+            } else if (startedAt == FanOutTracker.SHARD_DUPLICATED) {
+                log.warn(">>>> new auction shard already completed: auctionUuid={}, shard={}",
+                    auctionUuid, newAuctionShardDto.getShardIndex());
+            }
+        } catch (Exception e) {
+            log.warn("completeShard error: {}", e.getMessage());
+        }
+    }
+
+    //broker가 모두 받을 때까지 기다린다. 실패하면 예외를 던져 checkpoint와 완료 표시를 남기지 않고 재전달받는다
+    public static void awaitSent(List<? extends CompletableFuture<?>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("new auction fan-out send failed: " + e.getMessage(),
+                e);
+        }
+    }
+
+    public static String shardKey(String auctionUuid, int shardIndex) {
+        return auctionUuid + ":" + shardIndex;
+    }
+
+    //이미 끝났으면 null, 아니면 lease token을 반환한다.
+    //다른 consumer가 처리 중이면 FanOutInProgressException을 던져 offset을 commit하지 않고,
+    //lease를 잡은 consumer가 죽어도 lease가 만료된 뒤 재전달받아 이어서 보낸다
+    public String begin(String fanOutKey) {
+        String leaseToken;
+        try {
+            if (fanOutTracker.isCompleted(fanOutKey)) {
+                log.info(">>>> new auction fan-out already completed: {}", fanOutKey);
+                return null;
+            }
+            leaseToken = fanOutTracker.tryLease(fanOutKey);
+        } catch (Exception e) {
+            //중복 방지보다 알림을 보내는 것을 우선한다
+            log.warn("fan-out begin error: {}", e.getMessage());
+            return NO_LEASE;
+        }
+        if (leaseToken == null) {
+            log.info(">>>> new auction fan-out in progress on another consumer: {}", fanOutKey);
+            throw new FanOutInProgressException(fanOutKey);
+        }
+        return leaseToken;
+    }
+
+    //중간에 실패했던 fan-out이면 마지막으로 보낸 구독 id부터 이어서 보낸다
+    public long resumeAfterId(String fanOutKey, long afterId) {
+        try {
+            Long checkpoint = fanOutTracker.getCheckpoint(fanOutKey);
+            return checkpoint == null ? afterId : Math.max(afterId, checkpoint);
+        } catch (Exception e) {
+            log.warn("fan-out checkpoint read error: {}", e.getMessage());
+            return afterId;
+        }
+    }
+
+    public void checkpoint(String fanOutKey, String leaseToken, long lastId) {
+        try {
+            fanOutTracker.saveCheckpoint(fanOutKey, leaseToken, lastId);
+        } catch (Exception e) {
+            log.warn("fan-out checkpoint write error: {}", e.getMessage());
+        }
+    }
+
+    //끝까지 보냈으면 완료로 표시하고, 실패했으면 checkpoint를 남긴 채 lease만 푼다
+    public void finish(String fanOutKey, String leaseToken, boolean completed) {
+        try {
+            if (completed) {
+                fanOutTracker.markCompleted(fanOutKey);
+            }
+            fanOutTracker.releaseLease(fanOutKey, leaseToken);
+        } catch (Exception e) {
+            log.warn("fan-out finish error: {}", e.getMessage());
+        }
+    }
+
+    //다른 consumer가 lease를 잡고 있는 경우. 재전달받아 다시 시도해야 한다
+    public static class FanOutInProgressException extends RuntimeException {
+
+        public FanOutInProgressException(String fanOutKey) {
+            super("new auction fan-out in progress on another consumer: " + fanOutKey);
+        }
+    }
+}
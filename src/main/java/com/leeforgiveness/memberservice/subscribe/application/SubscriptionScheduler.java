@@ -0,0 +1,185 @@
+package com.leeforgiveness.memberservice.subscribe.application;
+
+import com.leeforgiveness.memberservice.subscribe.dto.SubscriberCountDto;
+import com.leeforgiveness.memberservice.subscribe.dto.SubscriptionKeyDto;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.InfluencerSubscriptionRepository;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriberCounter;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriberIndex;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriptionBloomFilter;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriptionWriteBuffer;
+import com.leeforgiveness.memberservice.subscribe.state.SubscribeState;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SubscriptionScheduler {
+
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final InfluencerSubscriptionRepository influencerSubscriptionRepository;
+    private final SubscriberIndex subscriberIndex;
+    private final SubscriptionBloomFilter subscriptionBloomFilter;
+    private final SubscriberCounter subscriberCounter;
+    private final SubscriptionWriteBuffer subscriptionWriteBuffer;
+    private final InfluencerSubscriptionService influencerSubscriptionService;
+
+    //서버가 뜰 때 인덱스가 준비되어 있지 않으면 바로 재구축한다
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSubscriberIndexOnStartup() {
+        try {
+            if (!subscriberIndex.isReady()) {
+                rebuildSubscriberIndex();
+            }
+        } catch (Exception e) {
+            log.warn("rebuildSubscriberIndexOnStartup error: {}", e.getMessage());
+        }
+    }
+
+    //구독 테이블을 기준으로 redis 구독 인덱스를 새 generation에 다시 만들고 교체한다
+    @Scheduled(cron = "${subscription.index.rebuild-cron:0 0 4 * * *}")
+    public void rebuildSubscriberIndex() {
+        String lockToken = subscriberIndex.tryLockRebuild();
+        if (lockToken == null) {
+            log.info(">>>> rebuildSubscriberIndex: already running on another instance");
+            return;
+        }
+
+        Long generation = null;
+        try {
+            generation = subscriberIndex.beginRebuild();
+
+            long rebuildGeneration = generation;
+            long indexedCount = forEachSubscriptionChunk(subscriptionKeys -> {
+                subscriberIndex.addAllToRebuild(rebuildGeneration, subscriptionKeys);
+                if (!subscriberIndex.renewRebuildLock(lockToken)) {
+                    throw new IllegalStateException("subscriber index rebuild lock lost");
+                }
+            });
+
+            if (subscriberIndex.completeRebuild(generation)) {
+                log.info(">>>> rebuildSubscriberIndex: indexed {} subscriptions (generation {})",
+                    indexedCount, generation);
+            } else {
+                log.warn(">>>> rebuildSubscriberIndex: generation {} was invalidated during rebuild",
+                    generation);
+            }
+            subscriberIndex.deleteStaleGenerations();
+        } catch (Exception e) {
+            log.error("rebuildSubscriberIndex error: {}", e.getMessage());
+            if (generation != null) {
+                subscriberIndex.abortRebuild(generation);
+            }
+        } finally {
+            subscriberIndex.unlockRebuild(lockToken);
+        }
+    }
+
+    //구독 테이블을 기준으로 인스턴스 로컬 bloom filter를 다시 만든다.
+    //(구독자, 인플루언서) 쌍만 읽으므로 인스턴스마다 실행해도 DB 부하가 크지 않다
+    @Scheduled(fixedDelayString = "${subscription.bloom.rebuild-interval-ms:600000}")
+    public void rebuildSubscriptionBloomFilter() {
+        try {
+            subscriptionBloomFilter.beginRebuild(
+                influencerSubscriptionRepository.countByState(SubscribeState.SUBSCRIBE));
+
+            long filteredCount = forEachSubscriptionChunk(
+                subscriptionBloomFilter::putAllToRebuild);
+
+            subscriptionBloomFilter.completeRebuild();
+            log.info(">>>> rebuildSubscriptionBloomFilter: {} subscriptions", filteredCount);
+        } catch (Exception e) {
+            subscriptionBloomFilter.abortRebuild();
+            log.error("rebuildSubscriptionBloomFilter error: {}", e.getMessage());
+        }
+    }
+
+    //다른 인스턴스의 구독 추가 메시지를 놓쳤어도 redis에 남은 최근 추가분으로 bloom filter를 맞춘다
+    @Scheduled(fixedDelayString = "${subscription.bloom.sync-interval-ms:1000}")
+    public void syncSubscriptionBloomFilter() {
+        try {
+            subscriptionBloomFilter.syncRecent();
+        } catch (Exception e) {
+            //놓친 구독이 있을 수 있으므로 재구축 전까지 필터를 사용하지 않는다
+            log.warn("syncSubscriptionBloomFilter error: {}", e.getMessage());
+            subscriptionBloomFilter.markNotReady();
+        }
+    }
+
+    //증감 중 유실된 값이 있어도 그룹별 COUNT로 구독자 수를 다시 맞춘다
+    @Scheduled(cron = "${subscription.count.reconcile-cron:0 0 * * * *}")
+    public void reconcileSubscriberCounts() {
+        if (!subscriberCounter.tryLockReconcile()) {
+            log.info(">>>> reconcileSubscriberCounts: already running on another instance");
+            return;
+        }
+
+        try {
+            //집계하는 동안의 증감을 덮어쓰지 않도록 집계 전에 시작한다
+            subscriberCounter.beginReconcile();
+            Map<String, Long> subscriberCounts = influencerSubscriptionRepository
+                .countGroupByInfluencerUuid(SubscribeState.SUBSCRIBE).stream()
+                .collect(Collectors.toMap(SubscriberCountDto::getInfluencerUuid,
+                    SubscriberCountDto::getSubscriberCount));
+
+            subscriberCounter.replaceAll(subscriberCounts);
+            log.info(">>>> reconcileSubscriberCounts: {} influencers", subscriberCounts.size());
+        } catch (Exception e) {
+            log.error("reconcileSubscriberCounts error: {}", e.getMessage());
+        } finally {
+            subscriberCounter.endReconcile();
+            subscriberCounter.unlockReconcile();
+        }
+    }
+
+    //write-behind 모드에서 모인 구독 상태를 주기적으로 DB에 쓴다
+    @Scheduled(fixedDelayString = "${subscription.write-behind.flush-interval-ms:200}")
+    public void flushPendingSubscriptions() {
+        if (!subscriptionWriteBuffer.isEnabled()) {
+            return;
+        }
+        try {
+            influencerSubscriptionService.flushPendingSubscriptions();
+        } catch (Exception e) {
+            log.error("flushPendingSubscriptions error: {}", e.getMessage());
+        }
+    }
+
+    //종료 전에 남은 구독 상태를 모두 쓴다
+    @EventListener(ContextClosedEvent.class)
+    public void flushPendingSubscriptionsOnShutdown() {
+        flushPendingSubscriptions();
+    }
+
+    //SUBSCRIBE 상태의 (구독자, 인플루언서) 쌍을 id 순으로 REBUILD_CHUNK_SIZE 만큼씩 넘겨준다
+    private long forEachSubscriptionChunk(Consumer<List<SubscriptionKeyDto>> chunkConsumer) {
+        long lastId = 0L;
+        long subscriptionCount = 0L;
+        List<SubscriptionKeyDto> subscriptionKeys;
+        do {
+            subscriptionKeys = influencerSubscriptionRepository.findSubscriptionKeysAfter(
+                SubscribeState.SUBSCRIBE, lastId, PageRequest.of(0, REBUILD_CHUNK_SIZE));
+
+            if (subscriptionKeys.isEmpty()) {
+                break;
+            }
+
+            chunkConsumer.accept(subscriptionKeys);
+            lastId = subscriptionKeys.get(subscriptionKeys.size() - 1).getId();
+            subscriptionCount += subscriptionKeys.size();
+        } while (subscriptionKeys.size() == REBUILD_CHUNK_SIZE);
+
+        return subscriptionCount;
+    }
+}
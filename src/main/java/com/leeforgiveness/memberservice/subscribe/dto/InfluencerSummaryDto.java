@@ -8,14 +8,24 @@ import org.json.JSONObject;
 @AllArgsConstructor
 public class InfluencerSummaryDto {
 
+    private String influencerUuid;
     private String name;
     private String profileImage;
 
+    public InfluencerSummaryDto(String name, String profileImage) {
+        this(null, name, profileImage);
+    }
+
     public static InfluencerSummaryDto fromJson(JSONObject jsonObject) {
         return new InfluencerSummaryDto(
+            jsonObject.optString("influencerUuid", null),
             jsonObject.getString("name"),
             jsonObject.getString("profileImage")
         );
     }
-}
 
+    //요청 순서로 대응시킨 uuid를 채운다
+    public InfluencerSummaryDto withInfluencerUuid(String influencerUuid) {
+        return new InfluencerSummaryDto(influencerUuid, name, profileImage);
+    }
+}
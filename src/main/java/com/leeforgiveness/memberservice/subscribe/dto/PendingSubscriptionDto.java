@@ -0,0 +1,20 @@
+package com.leeforgiveness.memberservice.subscribe.dto;
+
+import com.leeforgiveness.memberservice.subscribe.state.SubscribeState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//아직 DB에 쓰지 않은 구독 상태. persistedState는 DB에 반영된 상태, state는 마지막으로 요청된 상태
+@Getter
+@AllArgsConstructor
+public class PendingSubscriptionDto {
+
+    private String subscriberUuid;
+    private String influencerUuid;
+    private SubscribeState persistedState;
+    private SubscribeState state;
+
+    public boolean isChanged() {
+        return persistedState != state;
+    }
+}
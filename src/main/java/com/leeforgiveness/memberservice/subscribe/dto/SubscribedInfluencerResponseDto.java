@@ -17,11 +17,13 @@ import lombok.Setter;
 public class SubscribedInfluencerResponseDto {
 
     private List<InfluencerSummaryDto> influencerSummaries;
+    private Long nextCursor;
 
     public static SubscribedInfluencerResponseVo dtoToVo(
         SubscribedInfluencerResponseDto subscribedInfluencerResponseDto) {
         return new SubscribedInfluencerResponseVo(
-            subscribedInfluencerResponseDto.getInfluencerSummaries()
+            subscribedInfluencerResponseDto.getInfluencerSummaries(),
+            subscribedInfluencerResponseDto.getNextCursor()
         );
     }
 }
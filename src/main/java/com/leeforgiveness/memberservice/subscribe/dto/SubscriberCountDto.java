@@ -0,0 +1,12 @@
+package com.leeforgiveness.memberservice.subscribe.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SubscriberCountDto {
+
+    private String influencerUuid;
+    private Long subscriberCount;
+}
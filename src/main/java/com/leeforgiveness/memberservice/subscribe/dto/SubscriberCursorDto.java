@@ -0,0 +1,12 @@
+package com.leeforgiveness.memberservice.subscribe.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SubscriberCursorDto {
+
+    private Long id;
+    private String subscriberUuid;
+}
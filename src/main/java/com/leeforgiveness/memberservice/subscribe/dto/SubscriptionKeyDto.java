@@ -0,0 +1,13 @@
+package com.leeforgiveness.memberservice.subscribe.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SubscriptionKeyDto {
+
+    private Long id;
+    private String subscriberUuid;
+    private String influencerUuid;
+}
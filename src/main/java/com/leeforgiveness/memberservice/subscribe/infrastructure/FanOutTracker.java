@@ -0,0 +1,126 @@
+package com.leeforgiveness.memberservice.subscribe.infrastructure;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 새 경매 알림 fan-out의 진행 상황을 redis에 기록한다.
+ * FAN_OUT:{auctionUuid} HASH에 shard 시작 id와 shard 수, 시작 시각, 보낸 수신자 수를 두고, 끝난 shard 번호는 SET으로 모은다.
+ * 같은 메시지가 다시 전달되어도 중복으로 보내지 않도록 fan-out 단위(경매 또는 shard)마다
+ * 처리 중 lease, 마지막으로 보낸 구독 id(checkpoint), 완료 표시를 둔다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FanOutTracker {
+
+    private static final String FAN_OUT_PREFIX = "FAN_OUT:";
+    private static final String COMPLETED_SHARDS_SUFFIX = ":COMPLETED_SHARDS";
+    private static final String LEASE_PREFIX = "FAN_OUT:LEASE:";
+    private static final String CHECKPOINT_PREFIX = "FAN_OUT:CHECKPOINT:";
+    private static final String COMPLETED_PREFIX = "FAN_OUT:COMPLETED:";
+    private static final Duration FAN_OUT_TTL = Duration.ofDays(1);
+    //consumer session timeout(기본 45초)보다 짧게 두어, 죽은 consumer의 메시지가 재전달될 때는 lease가 풀려 있도록 한다
+    private static final Duration LEASE_DURATION = Duration.ofSeconds(30);
+
+    public static final long SHARD_DUPLICATED = -2L;
+    public static final long FAN_OUT_IN_PROGRESS = -1L;
+
+    //처음 끝난 shard만 수신자 수에 더한다. 마지막 shard면 시작 시각, 아니면 FAN_OUT_IN_PROGRESS, 중복이면 SHARD_DUPLICATED
+    private static final RedisScript<Long> COMPLETE_SHARD_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('SADD', KEYS[2], ARGV[1]) == 0 then return -2 end "
+            + "redis.call('EXPIRE', KEYS[2], ARGV[4]) "
+            + "redis.call('HINCRBY', KEYS[1], 'receivers', ARGV[2]) "
+            + "if redis.call('SCARD', KEYS[2]) < tonumber(redis.call('HGET', KEYS[1], 'shardCount')) "
+            + "then return -1 end "
+            + "redis.call('HSET', KEYS[1], 'completedAt', ARGV[3]) "
+            + "return tonumber(redis.call('HGET', KEYS[1], 'startedAt'))", Long.class);
+
+    //lease를 잡은 쪽만 연장하거나 풀 수 있다
+    private static final RedisScript<Long> RENEW_LEASE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end return 0", Long.class);
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('DEL', KEYS[1]) end return 0", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    //처음 시작하면 shard 시작 id를 기록하고, 앞선 시도가 shard를 다 발행하지 못해 다시 시작하면
+    //이미 끝난 shard와 구간이 어긋나지 않도록 기록해 둔 시작 id를 반환한다
+    public List<Long> start(String auctionUuid, List<Long> shardStartIds) {
+        String key = FAN_OUT_PREFIX + auctionUuid;
+        String joinedStartIds = shardStartIds.stream().map(String::valueOf)
+            .collect(Collectors.joining(","));
+        if (Boolean.TRUE.equals(stringRedisTemplate.opsForHash()
+            .putIfAbsent(key, "shardStartIds", joinedStartIds))) {
+            stringRedisTemplate.opsForHash().putAll(key, Map.of(
+                "shardCount", String.valueOf(shardStartIds.size()),
+                "startedAt", String.valueOf(System.currentTimeMillis()),
+                "receivers", "0"));
+            stringRedisTemplate.expire(key, FAN_OUT_TTL);
+            return shardStartIds;
+        }
+
+        Object storedStartIds = stringRedisTemplate.opsForHash().get(key, "shardStartIds");
+        return Arrays.stream(storedStartIds.toString().split(","))
+            .map(Long::valueOf)
+            .toList();
+    }
+
+    public long completeShard(String auctionUuid, int shardIndex, int receiverCount) {
+        Long result = stringRedisTemplate.execute(COMPLETE_SHARD_SCRIPT,
+            List.of(FAN_OUT_PREFIX + auctionUuid,
+                FAN_OUT_PREFIX + auctionUuid + COMPLETED_SHARDS_SUFFIX),
+            String.valueOf(shardIndex), String.valueOf(receiverCount),
+            String.valueOf(System.currentTimeMillis()), String.valueOf(FAN_OUT_TTL.toSeconds()));
+        return result == null ? FAN_OUT_IN_PROGRESS : result;
+    }
+
+    public long getReceiverCount(String auctionUuid) {
+        Object receivers = stringRedisTemplate.opsForHash()
+            .get(FAN_OUT_PREFIX + auctionUuid, "receivers");
+        return receivers == null ? 0L : Long.parseLong(receivers.toString());
+    }
+
+    public boolean isCompleted(String fanOutKey) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(COMPLETED_PREFIX + fanOutKey));
+    }
+
+    //lease를 잡으면 token을, 다른 consumer가 처리 중이면 null을 반환한다
+    public String tryLease(String fanOutKey) {
+        String token = UUID.randomUUID().toString();
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+            .setIfAbsent(LEASE_PREFIX + fanOutKey, token, LEASE_DURATION)) ? token : null;
+    }
+
+    public void releaseLease(String fanOutKey, String token) {
+        stringRedisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(LEASE_PREFIX + fanOutKey), token);
+    }
+
+    public Long getCheckpoint(String fanOutKey) {
+        String checkpoint = stringRedisTemplate.opsForValue().get(CHECKPOINT_PREFIX + fanOutKey);
+        return checkpoint == null ? null : Long.valueOf(checkpoint);
+    }
+
+    //chunk를 보낼 때마다 마지막 구독 id를 기록하고 lease를 연장한다
+    public void saveCheckpoint(String fanOutKey, String token, long lastId) {
+        stringRedisTemplate.opsForValue()
+            .set(CHECKPOINT_PREFIX + fanOutKey, String.valueOf(lastId), FAN_OUT_TTL);
+        stringRedisTemplate.execute(RENEW_LEASE_SCRIPT, List.of(LEASE_PREFIX + fanOutKey), token,
+            String.valueOf(LEASE_DURATION.toMillis()));
+    }
+
+    public void markCompleted(String fanOutKey) {
+        stringRedisTemplate.opsForValue().set(COMPLETED_PREFIX + fanOutKey, "1", FAN_OUT_TTL);
+        stringRedisTemplate.delete(CHECKPOINT_PREFIX + fanOutKey);
+    }
+}
@@ -0,0 +1,73 @@
+package com.leeforgiveness.memberservice.subscribe.infrastructure;
+
+import com.leeforgiveness.memberservice.common.kafka.Topics.Constant;
+import com.leeforgiveness.memberservice.common.kafka.dto.SubscriptionChangedDto;
+import com.leeforgiveness.memberservice.common.outbox.OutboxPublisher;
+import com.leeforgiveness.memberservice.subscribe.dto.PendingSubscriptionDto;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@RequiredArgsConstructor
+public class InfluencerSubscriptionBatchRepository {
+
+    private static final String UPSERT_STATE_SQL = "insert into influencer_subscription "
+        + "(subscriber_uuid, influencer_uuid, state, created_at, updated_at) "
+        + "values (?, ?, ?, now(), now()) "
+        + "on conflict (subscriber_uuid, influencer_uuid) do update "
+        + "set state = excluded.state, updated_at = excluded.updated_at "
+        + "where influencer_subscription.state <> excluded.state";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxPublisher outboxPublisher;
+
+    //구독 상태 변경을 JDBC batch 한 번으로 반영하고, 같은 트랜잭션에서 변경 이벤트를 outbox에 기록한다.
+    //이미 같은 상태여서 바뀌지 않은 행은 빼고, 실제로 바뀐 구독만 반환한다
+    @Transactional
+    public List<PendingSubscriptionDto> upsertStates(
+        List<PendingSubscriptionDto> pendingSubscriptions) {
+        int[] updateCounts = jdbcTemplate.batchUpdate(UPSERT_STATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PendingSubscriptionDto pendingSubscription = pendingSubscriptions.get(i);
+                ps.setString(1, pendingSubscription.getSubscriberUuid());
+                ps.setString(2, pendingSubscription.getInfluencerUuid());
+                ps.setString(3, pendingSubscription.getState().name());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return pendingSubscriptions.size();
+            }
+        });
+
+        List<PendingSubscriptionDto> appliedSubscriptions = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            //드라이버가 행 수를 알려주지 않으면 바뀐 것으로 본다
+            if (updateCounts[i] > 0 || updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+                appliedSubscriptions.add(pendingSubscriptions.get(i));
+            }
+        }
+        if (appliedSubscriptions.isEmpty()) {
+            return appliedSubscriptions;
+        }
+
+        outboxPublisher.appendAll(Constant.SUBSCRIPTION_CHANGED, appliedSubscriptions.stream()
+                .map(pendingSubscription -> SubscriptionChangedDto.builder()
+                    .subscriberUuid(pendingSubscription.getSubscriberUuid())
+                    .influencerUuid(pendingSubscription.getInfluencerUuid())
+                    .state(pendingSubscription.getState().name())
+                    .build())
+                .toList(),
+            SubscriptionChangedDto::getInfluencerUuid);
+        return appliedSubscriptions;
+    }
+}
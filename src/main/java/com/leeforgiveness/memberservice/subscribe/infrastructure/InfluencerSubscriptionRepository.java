@@ -1,10 +1,19 @@
 package com.leeforgiveness.memberservice.subscribe.infrastructure;
 
 import com.leeforgiveness.memberservice.subscribe.domain.InfluencerSubscription;
+import com.leeforgiveness.memberservice.subscribe.dto.SubscriberCountDto;
+import com.leeforgiveness.memberservice.subscribe.dto.SubscriberCursorDto;
+import com.leeforgiveness.memberservice.subscribe.dto.SubscriptionKeyDto;
 import com.leeforgiveness.memberservice.subscribe.state.SubscribeState;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface InfluencerSubscriptionRepository extends
     JpaRepository<InfluencerSubscription, Long> {
@@ -16,4 +25,72 @@ public interface InfluencerSubscriptionRepository extends
         SubscribeState state);
 
     List<InfluencerSubscription> findByInfluencerUuidAndState(String influencerUuid, SubscribeState state);
+
+    long countByState(SubscribeState state);
+
+    long countByInfluencerUuidAndState(String influencerUuid, SubscribeState state);
+
+    @Query("select new com.leeforgiveness.memberservice.subscribe.dto.SubscriberCountDto("
+        + "s.influencerUuid, count(s)) from InfluencerSubscription s "
+        + "where s.state = :state group by s.influencerUuid")
+    List<SubscriberCountDto> countGroupByInfluencerUuid(@Param("state") SubscribeState state);
+
+    @Query("select s.influencerUuid from InfluencerSubscription s "
+        + "where s.subscriberUuid = :subscriberUuid and s.state = :state "
+        + "and s.influencerUuid in :influencerUuids")
+    List<String> findInfluencerUuidsIn(@Param("subscriberUuid") String subscriberUuid,
+        @Param("state") SubscribeState state,
+        @Param("influencerUuids") Collection<String> influencerUuids);
+
+    //cursor보다 id가 작은 구독을 최근 순으로 조회 (keyset pagination)
+    List<InfluencerSubscription> findBySubscriberUuidAndStateAndIdLessThanOrderByIdDesc(
+        String subscriberUuid, SubscribeState state, Long cursor, Pageable pageable);
+
+    //lastId보다 id가 큰 구독의 (구독자, 인플루언서) 쌍만 id 순으로 조회 (인덱스, bloom filter 재구축)
+    @Query("select new com.leeforgiveness.memberservice.subscribe.dto.SubscriptionKeyDto("
+        + "s.id, s.subscriberUuid, s.influencerUuid) from InfluencerSubscription s "
+        + "where s.state = :state and s.id > :lastId order by s.id")
+    List<SubscriptionKeyDto> findSubscriptionKeysAfter(@Param("state") SubscribeState state,
+        @Param("lastId") Long lastId, Pageable pageable);
+
+    //afterId < id < beforeId 구간의 구독자 uuid만 id 순으로 조회 (fan-out shard)
+    @Query("select new com.leeforgiveness.memberservice.subscribe.dto.SubscriberCursorDto("
+        + "s.id, s.subscriberUuid) from InfluencerSubscription s "
+        + "where s.influencerUuid = :influencerUuid and s.state = :state "
+        + "and s.id > :afterId and s.id < :beforeId order by s.id")
+    List<SubscriberCursorDto> findSubscriberChunkInRange(
+        @Param("influencerUuid") String influencerUuid, @Param("state") SubscribeState state,
+        @Param("afterId") Long afterId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    //구독자를 id 순으로 shardSize 명씩 나누었을 때 각 shard의 첫 id
+    @Query(value = "select s.id from (select influencer_subscription_id as id, "
+        + "row_number() over (order by influencer_subscription_id) as rn "
+        + "from influencer_subscription "
+        + "where influencer_uuid = :influencerUuid and state = 'SUBSCRIBE') s "
+        + "where (s.rn - 1) % :shardSize = 0 order by s.id", nativeQuery = true)
+    List<Long> findShardStartIds(@Param("influencerUuid") String influencerUuid,
+        @Param("shardSize") int shardSize);
+
+    //구독 행이 없으면 추가하고 구독 취소 상태면 다시 구독 상태로 바꾼다.
+    //새로 추가되면 true, 구독 취소 상태에서 바뀌면 false, 이미 구독 중이면 아무 행도 반환하지 않는다
+    @Transactional
+    @Query(value = "insert into influencer_subscription "
+        + "(subscriber_uuid, influencer_uuid, state, created_at, updated_at) "
+        + "values (:subscriberUuid, :influencerUuid, 'SUBSCRIBE', now(), now()) "
+        + "on conflict (subscriber_uuid, influencer_uuid) do update "
+        + "set state = excluded.state, updated_at = excluded.updated_at "
+        + "where influencer_subscription.state <> excluded.state "
+        + "returning (xmax = 0)", nativeQuery = true)
+    Optional<Boolean> upsertSubscribe(@Param("subscriberUuid") String subscriberUuid,
+        @Param("influencerUuid") String influencerUuid);
+
+    //구독 중일 때만 구독 취소 상태로 바꾸고, 바뀐 행 수를 반환한다
+    @Transactional
+    @Modifying
+    @Query(value = "update influencer_subscription "
+        + "set state = 'UNSUBSCRIBE', updated_at = now() "
+        + "where subscriber_uuid = :subscriberUuid and influencer_uuid = :influencerUuid "
+        + "and state = 'SUBSCRIBE'", nativeQuery = true)
+    int unsubscribeIfSubscribed(@Param("subscriberUuid") String subscriberUuid,
+        @Param("influencerUuid") String influencerUuid);
 }
@@ -0,0 +1,122 @@
+package com.leeforgiveness.memberservice.subscribe.infrastructure;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 인플루언서별 구독자 수를 redis HASH(SUBSCRIBER_COUNT)에 유지한다.
+ * 아직 집계되지 않은 인플루언서는 증감하지 않고, 처음 조회할 때 DB 값으로 채운다.
+ * 재집계 중에는 증감을 SUBSCRIBER_COUNT:DELTA에도 남겨, 집계 이후의 변경을 더해 덮어쓴다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SubscriberCounter {
+
+    private static final String COUNT_KEY = "SUBSCRIBER_COUNT";
+    private static final String DELTA_KEY = "SUBSCRIBER_COUNT:DELTA";
+    private static final String RECONCILING_KEY = "SUBSCRIBER_COUNT:RECONCILING";
+    private static final String RECONCILE_LOCK_KEY = "SUBSCRIBER_COUNT:RECONCILE_LOCK";
+    private static final Duration RECONCILE_LOCK_DURATION = Duration.ofMinutes(10);
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    //재집계 중이면 DELTA에 남기고, 필드가 있을 때만 HINCRBY 한다
+    private static final RedisScript<Long> INCREMENT_IF_EXISTS_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('EXISTS', KEYS[3]) == 1 then "
+            + "redis.call('HINCRBY', KEYS[2], ARGV[1], ARGV[2]) "
+            + "redis.call('EXPIRE', KEYS[2], ARGV[3]) end "
+            + "if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 1 then "
+            + "return redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2]) end "
+            + "return nil", Long.class);
+
+    //집계 값에 집계 이후 쌓인 증감을 더해 쓰고, 반영한 증감은 지운다.
+    //이후의 증감은 필드에 바로 더해지므로 다시 반영하지 않는다
+    private static final RedisScript<Long> RECONCILE_SCRIPT = new DefaultRedisScript<>(
+        "for i = 1, #ARGV, 2 do "
+            + "local delta = tonumber(redis.call('HGET', KEYS[2], ARGV[i])) or 0 "
+            + "redis.call('HSET', KEYS[1], ARGV[i], tonumber(ARGV[i + 1]) + delta) "
+            + "redis.call('HDEL', KEYS[2], ARGV[i]) end "
+            + "return 1", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public void increment(String influencerUuid) {
+        incrementIfExists(influencerUuid, 1);
+    }
+
+    public void decrement(String influencerUuid) {
+        incrementIfExists(influencerUuid, -1);
+    }
+
+    public Long getCount(String influencerUuid) {
+        Object count = stringRedisTemplate.opsForHash().get(COUNT_KEY, influencerUuid);
+        return count == null ? null : Long.valueOf(count.toString());
+    }
+
+    //다른 요청이 먼저 채웠다면 덮어쓰지 않는다
+    public void putIfAbsent(String influencerUuid, long count) {
+        stringRedisTemplate.opsForHash().putIfAbsent(COUNT_KEY, influencerUuid, String.valueOf(count));
+    }
+
+    //집계 쿼리보다 먼저 호출해 이후의 증감을 DELTA에 모은다.
+    //집계 직전에 커밋된 변경이 이후에 증감되면 두 번 세어질 수 있지만 다음 재집계에서 맞춰진다
+    public void beginReconcile() {
+        stringRedisTemplate.delete(DELTA_KEY);
+        stringRedisTemplate.opsForValue().set(RECONCILING_KEY, "1", RECONCILE_LOCK_DURATION);
+    }
+
+    //집계 결과에 DELTA를 더해 인플루언서별로 덮어쓰고, 집계에 없는 인플루언서는 0에서 맞춘다
+    public void replaceAll(Map<String, Long> counts) {
+        Map<String, Long> values = new HashMap<>();
+        Set<Object> influencerUuids = stringRedisTemplate.opsForHash().keys(COUNT_KEY);
+        for (Object influencerUuid : influencerUuids) {
+            values.put(influencerUuid.toString(), 0L);
+        }
+        values.putAll(counts);
+
+        List<String> args = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            args.add(entry.getKey());
+            args.add(String.valueOf(entry.getValue()));
+            if (args.size() == RECONCILE_BATCH_SIZE * 2) {
+                reconcile(args);
+                args.clear();
+            }
+        }
+        if (!args.isEmpty()) {
+            reconcile(args);
+        }
+    }
+
+    public void endReconcile() {
+        stringRedisTemplate.delete(List.of(RECONCILING_KEY, DELTA_KEY));
+    }
+
+    public boolean tryLockReconcile() {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+            .setIfAbsent(RECONCILE_LOCK_KEY, "1", RECONCILE_LOCK_DURATION));
+    }
+
+    public void unlockReconcile() {
+        stringRedisTemplate.delete(RECONCILE_LOCK_KEY);
+    }
+
+    private void incrementIfExists(String influencerUuid, long delta) {
+        stringRedisTemplate.execute(INCREMENT_IF_EXISTS_SCRIPT,
+            List.of(COUNT_KEY, DELTA_KEY, RECONCILING_KEY), influencerUuid, String.valueOf(delta),
+            String.valueOf(RECONCILE_LOCK_DURATION.toSeconds()));
+    }
+
+    private void reconcile(List<String> args) {
+        stringRedisTemplate.execute(RECONCILE_SCRIPT, List.of(COUNT_KEY, DELTA_KEY),
+            args.toArray());
+    }
+}
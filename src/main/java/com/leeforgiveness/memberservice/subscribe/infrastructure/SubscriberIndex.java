@@ -0,0 +1,222 @@
+package com.leeforgiveness.memberservice.subscribe.infrastructure;
+
+import com.leeforgiveness.memberservice.subscribe.dto.SubscriptionKeyDto;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 구독자별 인플루언서 SET(SUBSCRIPTIONS:{generation}:{subscriberUuid})을 redis에 유지해 isSubscribed를 DB 없이 확인한다.
+ * 재구축은 새 generation 키에 인덱스를 만들고, 그동안 들어온 구독 변경은 JOURNAL에 모았다가 다시 적용한 뒤
+ * GENERATION 키를 새 generation으로 바꿔 한 번에 교체한다.
+ * GENERATION 키가 있을 때만 인덱스가 테이블과 일치한다고 보고, 없으면 호출하는 쪽에서 DB를 조회한다.
+ * 새 경매 알림 fan-out은 구독 id 구간을 DB에서 keyset으로 읽으므로 인플루언서별 구독자 SET은 두지 않는다.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class SubscriberIndex {
+
+    //예전에 fan-out용으로 쓰던 인플루언서별 구독자 SET. 재구축 때 남은 키를 지운다
+    private static final String LEGACY_SUBSCRIBERS_PREFIX = "SUBSCRIBERS:";
+    private static final String SUBSCRIPTIONS_PREFIX = "SUBSCRIPTIONS:";
+    private static final String GENERATION_KEY = "SUBSCRIBER_INDEX:GENERATION";
+    private static final String GENERATION_SEQUENCE_KEY = "SUBSCRIBER_INDEX:GENERATION_SEQUENCE";
+    private static final String BUILDING_KEY = "SUBSCRIBER_INDEX:BUILDING";
+    private static final String JOURNAL_PREFIX = "SUBSCRIBER_INDEX:JOURNAL:";
+    private static final String REBUILD_LOCK_KEY = "SUBSCRIBER_INDEX:REBUILD_LOCK";
+    private static final Duration REBUILD_LOCK_DURATION = Duration.ofMinutes(30);
+    private static final Duration JOURNAL_TTL = Duration.ofDays(1);
+
+    //현재 generation이 없으면 -1, 있으면 SISMEMBER 결과
+    private static final RedisScript<Long> IS_MEMBER_SCRIPT = new DefaultRedisScript<>(
+        "local generation = redis.call('GET', KEYS[1]) "
+            + "if not generation then return -1 end "
+            + "return redis.call('SISMEMBER', ARGV[1] .. generation .. ':' .. ARGV[2], ARGV[3])",
+        Long.class);
+
+    //현재 generation에 바로 반영하고, 재구축 중이면 끝날 때 다시 적용하도록 JOURNAL에 남긴다
+    private static final RedisScript<Long> UPDATE_SCRIPT = new DefaultRedisScript<>(
+        "local generation = redis.call('GET', KEYS[1]) "
+            + "if generation then "
+            + "redis.call(ARGV[1], ARGV[2] .. generation .. ':' .. ARGV[3], ARGV[4]) end "
+            + "local building = redis.call('GET', KEYS[2]) "
+            + "if building then "
+            + "local journal = ARGV[5] .. building "
+            + "redis.call('RPUSH', journal, ARGV[1] .. ' ' .. ARGV[3] .. ' ' .. ARGV[4]) "
+            + "redis.call('EXPIRE', journal, ARGV[6]) end "
+            + "return 1", Long.class);
+
+    //재구축 중 인덱스 갱신이 실패했거나 다른 재구축이 시작되어 BUILDING이 바뀌었으면 교체하지 않는다
+    private static final RedisScript<Long> COMPLETE_REBUILD_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end "
+            + "for _, entry in ipairs(redis.call('LRANGE', KEYS[3], 0, -1)) do "
+            + "local command, subscriber, influencer = string.match(entry, '(%S+) (%S+) (%S+)') "
+            + "redis.call(command, ARGV[2] .. ARGV[1] .. ':' .. subscriber, influencer) end "
+            + "redis.call('SET', KEYS[2], ARGV[1]) "
+            + "redis.call('DEL', KEYS[1], KEYS[3]) "
+            + "return 1", Long.class);
+
+    private static final RedisScript<Long> ABORT_REBUILD_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('DEL', KEYS[1], KEYS[2]) end return 0", Long.class);
+
+    //잠금을 잡은 쪽만 연장하거나 풀 수 있다
+    private static final RedisScript<Long> RENEW_LOCK_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end return 0", Long.class);
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('DEL', KEYS[1]) end return 0", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    //인덱스가 테이블과 일치하는 상태인지 확인
+    public boolean isReady() {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(GENERATION_KEY));
+    }
+
+    //인덱스 갱신에 실패하면 재구축 전까지 DB를 조회하도록 한다.
+    //진행 중인 재구축도 실패한 변경을 JOURNAL로 되살릴 수 없으므로 교체하지 못하게 한다
+    public void markNotReady() {
+        stringRedisTemplate.delete(List.of(GENERATION_KEY, BUILDING_KEY));
+    }
+
+    public void add(String subscriberUuid, String influencerUuid) {
+        update("SADD", subscriberUuid, influencerUuid);
+    }
+
+    public void remove(String subscriberUuid, String influencerUuid) {
+        update("SREM", subscriberUuid, influencerUuid);
+    }
+
+    //인덱스가 준비되어 있지 않으면 비어 있는 값을 반환한다
+    public Optional<Boolean> isMember(String subscriberUuid, String influencerUuid) {
+        Long result = stringRedisTemplate.execute(IS_MEMBER_SCRIPT, List.of(GENERATION_KEY),
+            SUBSCRIPTIONS_PREFIX, subscriberUuid, influencerUuid);
+        if (result == null || result < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(result == 1L);
+    }
+
+    //새 generation 번호를 받아 재구축을 시작한다. 이후 들어온 구독 변경은 이 generation의 JOURNAL에 쌓인다
+    public long beginRebuild() {
+        long generation = stringRedisTemplate.opsForValue().increment(GENERATION_SEQUENCE_KEY);
+        stringRedisTemplate.delete(JOURNAL_PREFIX + generation);
+        stringRedisTemplate.opsForValue().set(BUILDING_KEY, String.valueOf(generation));
+        return generation;
+    }
+
+    //재구축 시 한 번의 파이프라인으로 구독 목록을 새 generation에 추가한다
+    public void addAllToRebuild(long generation, List<SubscriptionKeyDto> subscriptionKeys) {
+        String generationPrefix = SUBSCRIPTIONS_PREFIX + generation + ":";
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            for (SubscriptionKeyDto subscriptionKey : subscriptionKeys) {
+                stringRedisConnection.sAdd(
+                    generationPrefix + subscriptionKey.getSubscriberUuid(),
+                    subscriptionKey.getInfluencerUuid());
+            }
+            return null;
+        });
+    }
+
+    //JOURNAL을 새 generation에 다시 적용하고 교체한다. 교체하지 못하면 false
+    public boolean completeRebuild(long generation) {
+        Long result = stringRedisTemplate.execute(COMPLETE_REBUILD_SCRIPT,
+            List.of(BUILDING_KEY, GENERATION_KEY, JOURNAL_PREFIX + generation),
+            String.valueOf(generation), SUBSCRIPTIONS_PREFIX);
+        return result != null && result == 1L;
+    }
+
+    public void abortRebuild(long generation) {
+        stringRedisTemplate.execute(ABORT_REBUILD_SCRIPT,
+            List.of(BUILDING_KEY, JOURNAL_PREFIX + generation), String.valueOf(generation));
+    }
+
+    //현재 generation보다 오래된 인덱스 키와 예전 형식의 키를 지운다.
+    //현재 generation 이후 번호는 다른 인스턴스가 만드는 중일 수 있어 남겨 둔다
+    public void deleteStaleGenerations() {
+        String currentGeneration = stringRedisTemplate.opsForValue().get(GENERATION_KEY);
+        if (currentGeneration == null) {
+            return;
+        }
+        long current = Long.parseLong(currentGeneration);
+
+        deleteByPattern(LEGACY_SUBSCRIBERS_PREFIX + "*");
+        deleteByPattern(SUBSCRIPTIONS_PREFIX + "*", key -> {
+            String suffix = key.substring(SUBSCRIPTIONS_PREFIX.length());
+            int separator = suffix.indexOf(':');
+            if (separator < 0) {
+                return true;
+            }
+            try {
+                return Long.parseLong(suffix.substring(0, separator)) < current;
+            } catch (NumberFormatException e) {
+                return true;
+            }
+        });
+    }
+
+    //여러 인스턴스가 동시에 재구축하지 않도록 잠금을 잡는다. 잡지 못하면 null
+    public String tryLockRebuild() {
+        String token = UUID.randomUUID().toString();
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+            .setIfAbsent(REBUILD_LOCK_KEY, token, REBUILD_LOCK_DURATION)) ? token : null;
+    }
+
+    public boolean renewRebuildLock(String token) {
+        Long result = stringRedisTemplate.execute(RENEW_LOCK_SCRIPT, List.of(REBUILD_LOCK_KEY),
+            token, String.valueOf(REBUILD_LOCK_DURATION.toMillis()));
+        return result != null && result == 1L;
+    }
+
+    public void unlockRebuild(String token) {
+        stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(REBUILD_LOCK_KEY), token);
+    }
+
+    private void update(String command, String subscriberUuid, String influencerUuid) {
+        stringRedisTemplate.execute(UPDATE_SCRIPT, List.of(GENERATION_KEY, BUILDING_KEY),
+            command, SUBSCRIPTIONS_PREFIX, subscriberUuid, influencerUuid, JOURNAL_PREFIX,
+            String.valueOf(JOURNAL_TTL.toSeconds()));
+    }
+
+    private void deleteByPattern(String pattern) {
+        deleteByPattern(pattern, key -> true);
+    }
+
+    private void deleteByPattern(String pattern, Predicate<String> filter) {
+        ScanOptions scanOptions = ScanOptions.scanOptions().match(pattern).count(1000).build();
+        List<String> keys = new ArrayList<>();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(scanOptions)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                if (!filter.test(key)) {
+                    continue;
+                }
+                keys.add(key);
+                if (keys.size() == 1000) {
+                    stringRedisTemplate.delete(keys);
+                    keys.clear();
+                }
+            }
+        }
+        if (!keys.isEmpty()) {
+            stringRedisTemplate.delete(keys);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.leeforgiveness.memberservice.subscribe.infrastructure;
+
+import com.leeforgiveness.memberservice.subscribe.dto.SubscriptionKeyDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * (subscriberUuid, influencerUuid) 구독 쌍에 대한 인스턴스 로컬 bloom filter.
+ * 필터가 false를 반환하면 구독하지 않은 것이 확실하므로 DB를 조회하지 않는다.
+ * 구독 추가는 redis 채널로 다른 인스턴스에도 전파되고, 구독 취소는 반영하지 않으며 주기적인 재구축으로 정리된다.
+ * pub/sub 메시지는 유실될 수 있으므로 최근 추가분을 시각 순 ZSET(SUBSCRIPTION_BLOOM_FILTER:RECENT)에도 남기고,
+ * 인스턴스마다 주기적으로 읽어 필터에 넣는다. 재구축을 마칠 때도 재구축 중 추가된 구독을 이 ZSET에서 다시 넣는다.
+ * ZSET이나 채널에 쓰지 못하면 실패 시각을 SUBSCRIPTION_BLOOM_FILTER:DIRTY에 남기고, 그 전에 만든 필터는
+ * 다음 재구축까지 사용하지 않는다. redis를 읽지 못할 때도 마찬가지로 필터를 사용하지 않는다.
+ */
+@Slf4j
+@Component
+public class SubscriptionBloomFilter implements MessageListener {
+
+    private static final String CHANNEL = "subscription-bloom-filter";
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+    private static final String RECENT_KEY = "SUBSCRIPTION_BLOOM_FILTER:RECENT";
+    private static final String DIRTY_KEY = "SUBSCRIPTION_BLOOM_FILTER:DIRTY";
+    //재구축 주기(10분)보다 길게 두어 재구축 중 추가된 구독을 놓치지 않는다
+    private static final Duration RECENT_RETENTION = Duration.ofMinutes(15);
+    //인스턴스 간 시계 차이와 ZADD보다 늦게 읽히는 경우를 감안해 겹쳐서 읽는다
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter falsePositiveCounter;
+    private final Counter notReadyCounter;
+
+    private volatile BloomFilter current;
+    //current를 만들기 시작한 시각. 이후에 전파에 실패한 구독은 current에 없을 수 있다
+    private volatile long currentStartedAt;
+    private volatile BloomFilter building;
+    private volatile long rebuildStartedAt;
+    private volatile long lastSyncedAt;
+
+    public SubscriptionBloomFilter(StringRedisTemplate stringRedisTemplate,
+        RedisMessageListenerContainer redisMessageListenerContainer, MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.hitCounter = resultCounter(meterRegistry, "hit");
+        this.missCounter = resultCounter(meterRegistry, "miss");
+        this.falsePositiveCounter = resultCounter(meterRegistry, "false_positive");
+        this.notReadyCounter = resultCounter(meterRegistry, "not_ready");
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("subscription.bloom.filter")
+            .description("isSubscribed lookups by bloom filter result")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    //false면 구독하지 않은 것이 확실하다. 필터가 아직 만들어지지 않았으면 true를 반환한다
+    public boolean mightContain(String subscriberUuid, String influencerUuid) {
+        BloomFilter filter = current;
+        if (filter == null) {
+            notReadyCounter.increment();
+            return true;
+        }
+        if (filter.mightContain(key(subscriberUuid, influencerUuid))) {
+            missCounter.increment();
+            return true;
+        }
+        hitCounter.increment();
+        return false;
+    }
+
+    //필터는 통과했지만 실제로는 구독하지 않은 경우
+    public void recordFalsePositive() {
+        falsePositiveCounter.increment();
+    }
+
+    public void put(String subscriberUuid, String influencerUuid) {
+        String key = key(subscriberUuid, influencerUuid);
+        putLocal(key);
+        try {
+            stringRedisTemplate.opsForZSet().add(RECENT_KEY, key, System.currentTimeMillis());
+            stringRedisTemplate.convertAndSend(CHANNEL, key);
+        } catch (Exception e) {
+            log.warn("SubscriptionBloomFilter publish error: {}", e.getMessage());
+            markDirty();
+        }
+    }
+
+    //다른 인스턴스가 이 구독을 받지 못했을 수 있으므로 지금까지 만든 필터를 쓰지 않게 한다
+    private void markDirty() {
+        try {
+            stringRedisTemplate.opsForValue().set(DIRTY_KEY,
+                String.valueOf(System.currentTimeMillis()), RECENT_RETENTION);
+        } catch (Exception e) {
+            log.error("SubscriptionBloomFilter mark dirty error: {}", e.getMessage());
+        }
+    }
+
+    //재구축 전까지 필터를 사용하지 않고 DB를 조회하도록 한다
+    public void markNotReady() {
+        current = null;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        putLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    //마지막으로 읽은 시각 이후 추가된 구독을 필터에 넣고, 보관 기간이 지난 항목을 정리한다
+    public void syncRecent() {
+        if (current != null && isDirtySince(currentStartedAt)) {
+            log.warn("SubscriptionBloomFilter dirty: not ready until next rebuild");
+            markNotReady();
+        }
+        long now = System.currentTimeMillis();
+        long since = lastSyncedAt == 0 ? now - RECENT_RETENTION.toMillis()
+            : lastSyncedAt - SYNC_OVERLAP.toMillis();
+        recentKeysSince(since).forEach(this::putLocal);
+        lastSyncedAt = now;
+        stringRedisTemplate.opsForZSet().removeRangeByScore(RECENT_KEY, 0,
+            now - RECENT_RETENTION.toMillis());
+    }
+
+    public void beginRebuild(long expectedInsertions) {
+        rebuildStartedAt = System.currentTimeMillis();
+        //재구축 주기 동안 늘어나는 구독을 감안해 여유를 둔다
+        building = new BloomFilter(expectedInsertions + expectedInsertions / 2,
+            FALSE_POSITIVE_PROBABILITY);
+    }
+
+    public void putAllToRebuild(List<SubscriptionKeyDto> subscriptionKeys) {
+        BloomFilter filter = building;
+        for (SubscriptionKeyDto subscriptionKey : subscriptionKeys) {
+            filter.put(key(subscriptionKey.getSubscriberUuid(),
+                subscriptionKey.getInfluencerUuid()));
+        }
+    }
+
+    //재구축 중 커밋된 구독이 빠지지 않도록 재구축을 시작한 뒤 추가된 구독을 새 필터에 다시 넣는다.
+    //읽지 못하면 예외를 던지고 기존 필터를 유지한다
+    public void completeRebuild() {
+        BloomFilter filter = building;
+        for (String key : recentKeysSince(rebuildStartedAt - SYNC_OVERLAP.toMillis())) {
+            filter.put(key);
+        }
+        building = null;
+        if (isDirtySince(rebuildStartedAt)) {
+            log.warn("SubscriptionBloomFilter dirty during rebuild: not ready until next rebuild");
+            markNotReady();
+            return;
+        }
+        currentStartedAt = rebuildStartedAt;
+        current = filter;
+    }
+
+    public void abortRebuild() {
+        building = null;
+    }
+
+    //startedAt 이후에 다른 인스턴스가 구독 전파에 실패했는지 확인한다. 시계 차이를 감안해 겹쳐서 본다
+    private boolean isDirtySince(long startedAt) {
+        String dirtyAt = stringRedisTemplate.opsForValue().get(DIRTY_KEY);
+        return dirtyAt != null && Long.parseLong(dirtyAt) >= startedAt - SYNC_OVERLAP.toMillis();
+    }
+
+    private Set<String> recentKeysSince(long since) {
+        Set<String> keys = stringRedisTemplate.opsForZSet()
+            .rangeByScore(RECENT_KEY, since, Double.POSITIVE_INFINITY);
+        return keys == null ? Set.of() : keys;
+    }
+
+    private void putLocal(String key) {
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(key);
+        }
+        BloomFilter nextFilter = building;
+        if (nextFilter != null) {
+            nextFilter.put(key);
+        }
+    }
+
+    private static String key(String subscriberUuid, String influencerUuid) {
+        return subscriberUuid + ":" + influencerUuid;
+    }
+}
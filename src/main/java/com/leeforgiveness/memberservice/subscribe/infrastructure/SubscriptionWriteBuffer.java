@@ -0,0 +1,146 @@
+package com.leeforgiveness.memberservice.subscribe.infrastructure;
+
+import com.leeforgiveness.memberservice.subscribe.dto.PendingSubscriptionDto;
+import com.leeforgiveness.memberservice.subscribe.state.SubscribeState;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * write-behind 모드에서 (subscriberUuid, influencerUuid)별 마지막 구독 상태를 모아두었다가 주기적으로 DB에 쓴다.
+ * 같은 쌍을 여러 번 토글해도 flush 시점의 최종 상태만 쓰고, 처음 상태로 돌아왔으면 아무것도 쓰지 않는다.
+ * flush 중인 상태는 inflight에 두어 쓰는 동안에도 조회에서 보이도록 한다.
+ * 버퍼는 인스턴스마다 따로 있으므로, 같은 구독자의 요청이 여러 인스턴스로 나뉘면 flush 전까지는 다른 인스턴스의
+ * 변경을 보지 못해 중복 구독, 구독 취소 검사와 조회 결과가 어긋날 수 있다. DB에는 조건부 upsert로 실제로 바뀐
+ * 행만 반영되고 구독자 수와 인덱스도 그 행만 갱신하므로 수치가 틀어지지는 않는다.
+ */
+@Slf4j
+@Component
+public class SubscriptionWriteBuffer {
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final boolean enabled;
+    private final InfluencerSubscriptionBatchRepository influencerSubscriptionBatchRepository;
+    private final Map<String, PendingSubscriptionDto> pending = new ConcurrentHashMap<>();
+    private final Map<String, PendingSubscriptionDto> inflight = new ConcurrentHashMap<>();
+
+    public SubscriptionWriteBuffer(
+        @Value("${subscription.write-behind.enabled:false}") boolean enabled,
+        InfluencerSubscriptionBatchRepository influencerSubscriptionBatchRepository) {
+        this.enabled = enabled;
+        this.influencerSubscriptionBatchRepository = influencerSubscriptionBatchRepository;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    //아직 DB에 쓰지 않은 상태가 있으면 반환한다
+    public Optional<SubscribeState> getPendingState(String subscriberUuid, String influencerUuid) {
+        String key = key(subscriberUuid, influencerUuid);
+        PendingSubscriptionDto pendingSubscription = pending.get(key);
+        if (pendingSubscription == null) {
+            pendingSubscription = inflight.get(key);
+        }
+        return Optional.ofNullable(pendingSubscription).map(PendingSubscriptionDto::getState);
+    }
+
+    /**
+     * 구독 상태를 state로 바꾼다. 이미 state였으면 false를 반환한다.
+     * 버퍼에 없는 쌍이면 persistedStateLoader로 현재 상태를 읽어 기준으로 삼는다.
+     */
+    public boolean change(String subscriberUuid, String influencerUuid, SubscribeState state,
+        Supplier<SubscribeState> persistedStateLoader) {
+        String key = key(subscriberUuid, influencerUuid);
+        while (true) {
+            PendingSubscriptionDto current = pending.get(key);
+            if (current == null) {
+                PendingSubscriptionDto inflightSubscription = inflight.get(key);
+                SubscribeState persistedState = inflightSubscription != null
+                    ? inflightSubscription.getState() : persistedStateLoader.get();
+                PendingSubscriptionDto loaded = new PendingSubscriptionDto(subscriberUuid,
+                    influencerUuid, persistedState, persistedState);
+                PendingSubscriptionDto existing = pending.putIfAbsent(key, loaded);
+                current = existing != null ? existing : loaded;
+            }
+
+            if (current.getState() == state) {
+                return false;
+            }
+
+            //다른 요청이 먼저 바꿨거나 flush로 빠졌으면 다시 읽는다
+            if (pending.replace(key, current, new PendingSubscriptionDto(subscriberUuid,
+                influencerUuid, current.getPersistedState(), state))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 모인 변경을 DB에 쓰고, DB에서 실제로 상태가 바뀐 구독마다 flushedConsumer를 호출한 뒤 그 개수를 반환한다.
+     * 다른 인스턴스가 먼저 같은 상태로 썼으면 바뀐 행이 없으므로 호출하지 않는다.
+     * flushedConsumer가 끝날 때까지 inflight에 남겨 두어 redis 반영 전에도 조회 결과가 바뀌지 않는다.
+     * 실패한 batch는 다음 flush에서 다시 쓴다.
+     */
+    public synchronized int flush(Consumer<PendingSubscriptionDto> flushedConsumer) {
+        List<PendingSubscriptionDto> changes = new ArrayList<>();
+        for (String key : pending.keySet()) {
+            PendingSubscriptionDto pendingSubscription = pending.get(key);
+            if (pendingSubscription == null) {
+                continue;
+            }
+            inflight.put(key, pendingSubscription);
+            if (!pending.remove(key, pendingSubscription)) {
+                inflight.remove(key, pendingSubscription);
+                continue;
+            }
+            if (pendingSubscription.isChanged()) {
+                changes.add(pendingSubscription);
+            } else {
+                inflight.remove(key, pendingSubscription);
+            }
+        }
+
+        int flushedCount = 0;
+        for (int from = 0; from < changes.size(); from += FLUSH_BATCH_SIZE) {
+            List<PendingSubscriptionDto> batch = changes.subList(from,
+                Math.min(from + FLUSH_BATCH_SIZE, changes.size()));
+            try {
+                List<PendingSubscriptionDto> appliedSubscriptions =
+                    influencerSubscriptionBatchRepository.upsertStates(batch);
+                appliedSubscriptions.forEach(flushedConsumer);
+                flushedCount += appliedSubscriptions.size();
+            } catch (Exception e) {
+                log.warn("SubscriptionWriteBuffer flush error: {}", e.getMessage());
+                batch.forEach(this::restore);
+            }
+            batch.forEach(pendingSubscription -> inflight.remove(
+                key(pendingSubscription.getSubscriberUuid(),
+                    pendingSubscription.getInfluencerUuid()), pendingSubscription));
+        }
+        return flushedCount;
+    }
+
+    //쓰지 못한 상태를 되돌린다. 그 사이 새 요청이 있었으면 새 상태를 유지하고 DB 기준 상태만 되돌린다
+    private void restore(PendingSubscriptionDto failed) {
+        pending.merge(key(failed.getSubscriberUuid(), failed.getInfluencerUuid()), failed,
+            (newer, ignored) -> new PendingSubscriptionDto(failed.getSubscriberUuid(),
+                failed.getInfluencerUuid(), failed.getPersistedState(), newer.getState()));
+    }
+
+    private static String key(String subscriberUuid, String influencerUuid) {
+        return subscriberUuid + ":" + influencerUuid;
+    }
+}
@@ -8,8 +8,11 @@ import com.leeforgiveness.memberservice.subscribe.vo.InfluencerSubscribeRequestV
 import com.leeforgiveness.memberservice.subscribe.vo.IsSubscribedRequestVo;
 import com.leeforgiveness.memberservice.subscribe.vo.SubscribedInfluencerRequestVo;
 import com.leeforgiveness.memberservice.subscribe.vo.SubscribedInfluencerResponseVo;
+import com.leeforgiveness.memberservice.subscribe.vo.SubscriptionStatesRequestVo;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,8 +22,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 @Tag(name = "인플루언서 구독 서비스", description = "인플루언서 구독 API")
@@ -50,15 +55,38 @@ public class InfluencerSubscribeController {
     }
 
     @GetMapping
-    @Operation(summary = "인플루언서 구독 리스트 조회", description = "인플루언서 구독 리스트를 조회합니다.")
+    @Operation(summary = "인플루언서 구독 리스트 조회", description = "최근에 구독한 순으로 인플루언서 구독 리스트를 조회합니다. 응답의 nextCursor를 cursor로 넘기면 다음 페이지를 조회합니다.")
     @ResponseBody
-    public SuccessResponse<SubscribedInfluencerResponseVo> getSubscribeInfos(
+    public Mono<SuccessResponse<SubscribedInfluencerResponseVo>> getSubscribeInfos(
         @RequestHeader(name = "Authorization") String authorization,
-        @RequestHeader String uuid) {
+        @RequestHeader String uuid,
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(required = false) Integer size) {
+        //조회를 기다리는 동안 servlet 스레드를 반납한다
+        return this.influencerSubscriptionService.getSubscriptionInfosReactive(
+                new SubscribedInfluencerRequestVo(authorization, uuid, cursor, size))
+            .map(subscribedInfluencerResponseDto -> new SuccessResponse<>(
+                SubscribedInfluencerResponseDto.dtoToVo(subscribedInfluencerResponseDto)))
+            .defaultIfEmpty(new SuccessResponse<>(null));
+    }
+
+    @GetMapping("/states")
+    @Operation(summary = "인플루언서 구독 여부 일괄 조회", description = "여러 인플루언서의 구독 여부를 한 번에 조회하여 uuid별 boolean을 반환합니다.")
+    @ResponseBody
+    public SuccessResponse<Map<String, Boolean>> getSubscribeStates(
+        @RequestHeader String uuid,
+        @RequestParam List<String> influencerUuids
+    ) {
+        return new SuccessResponse<>(influencerSubscriptionService.getSubscriptionStates(
+            new SubscriptionStatesRequestVo(uuid, influencerUuids)));
+    }
+
+    @GetMapping("/{influencerUuid}/count")
+    @Operation(summary = "인플루언서 구독자 수 조회", description = "인플루언서의 구독자 수를 조회합니다.")
+    @ResponseBody
+    public SuccessResponse<Long> getSubscriberCount(@PathVariable String influencerUuid) {
         return new SuccessResponse<>(
-            SubscribedInfluencerResponseDto.dtoToVo(
-                this.influencerSubscriptionService.getSubscriptionInfos(
-                    new SubscribedInfluencerRequestVo(authorization, uuid))));
+            influencerSubscriptionService.getSubscriberCount(influencerUuid));
     }
 
     @GetMapping("/{influencerUuid}")
@@ -15,4 +15,7 @@ public class SubscribedInfluencerRequestVo {
 
     private String authorization;
     private String subscriberUuid;
+    //이전 페이지의 마지막 구독 id. 첫 페이지면 null
+    private Long cursor;
+    private Integer size;
 }
@@ -9,10 +9,14 @@ import lombok.Getter;
 public class SubscribedInfluencerResponseVo {
 
     private List<InfluencerSummaryDto> influencerSummaries;
+    //다음 페이지를 조회할 때 cursor로 넘긴다. 마지막 페이지면 null
+    private Long nextCursor;
 
     public SubscribedInfluencerResponseVo(
-        List<InfluencerSummaryDto> influencerSummaries
+        List<InfluencerSummaryDto> influencerSummaries,
+        Long nextCursor
     ) {
         this.influencerSummaries = influencerSummaries;
+        this.nextCursor = nextCursor;
     }
 }
@@ -0,0 +1,13 @@
+package com.leeforgiveness.memberservice.subscribe.vo;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SubscriptionStatesRequestVo {
+
+    private String memberUuid;
+    private List<String> influencerUuids;
+}
@@ -0,0 +1,11 @@
+-- 기존에 JPA가 만든 테이블이 있으면 그대로 사용한다
+CREATE TABLE IF NOT EXISTS influencer_subscription
+(
+    influencer_subscription_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    subscriber_uuid            VARCHAR(36) NOT NULL,
+    influencer_uuid            VARCHAR(10) NOT NULL,
+    state                      VARCHAR(15) NOT NULL DEFAULT 'SUBSCRIBE'
+        CHECK (state IN ('SUBSCRIBE', 'UNSUBSCRIBE')),
+    created_at                 TIMESTAMP(6),
+    updated_at                 TIMESTAMP(6)
+);
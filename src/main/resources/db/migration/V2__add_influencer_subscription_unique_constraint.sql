@@ -0,0 +1,21 @@
+-- 같은 (구독자, 인플루언서) 행이 여러 개 있으면 가장 최근 행만 남긴다
+DELETE
+FROM influencer_subscription s
+    USING influencer_subscription newer
+WHERE s.subscriber_uuid = newer.subscriber_uuid
+  AND s.influencer_uuid = newer.influencer_uuid
+  AND s.influencer_subscription_id < newer.influencer_subscription_id;
+
+-- upsert의 ON CONFLICT 대상이면서 (subscriber_uuid, influencer_uuid) 조회에 사용된다
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1
+                       FROM pg_constraint
+                       WHERE conname = 'uk_influencer_subscription_subscriber_influencer') THEN
+            ALTER TABLE influencer_subscription
+                ADD CONSTRAINT uk_influencer_subscription_subscriber_influencer
+                    UNIQUE (subscriber_uuid, influencer_uuid);
+        END IF;
+    END
+$$;
@@ -0,0 +1,16 @@
+-- state는 바인드 파라미터로 넘어와 generic plan에서는 partial index(WHERE state = 'SUBSCRIBE')를 쓸 수 없으므로
+-- state를 키 컬럼에 포함한 복합 인덱스를 만든다. 운영 중인 테이블을 잠그지 않도록 CONCURRENTLY로 만든다
+
+-- 새 경매 알림 구독자 chunk 조회, 인플루언서별 구독자 수 (index only scan)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_influencer_subscription_influencer_state_id
+    ON influencer_subscription (influencer_uuid, state, influencer_subscription_id)
+    INCLUDE (subscriber_uuid);
+
+-- 구독 리스트 페이지 조회, 구독 여부 일괄 조회
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_influencer_subscription_subscriber_state_id
+    ON influencer_subscription (subscriber_uuid, state, influencer_subscription_id)
+    INCLUDE (influencer_uuid);
+
+-- 인덱스/bloom filter 재구축 시 상태별 keyset 조회
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_influencer_subscription_state_id
+    ON influencer_subscription (state, influencer_subscription_id);
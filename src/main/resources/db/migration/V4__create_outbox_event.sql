@@ -0,0 +1,10 @@
+-- 트랜잭션 안에서 기록하고 OutboxRelay가 kafka로 발행한 뒤 지운다
+CREATE TABLE IF NOT EXISTS outbox_event
+(
+    outbox_event_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_key   VARCHAR(64)  NOT NULL,
+    topic           VARCHAR(100) NOT NULL,
+    payload_type    VARCHAR(255) NOT NULL,
+    payload         TEXT         NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL DEFAULT now()
+);
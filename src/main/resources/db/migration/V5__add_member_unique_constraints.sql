@@ -0,0 +1,35 @@
+-- member, sns_info는 JPA가 만든 테이블이다. 아직 없으면 JPA가 엔티티의 unique 제약과 함께 만든다.
+-- 이미 중복된 행이 있으면 제약을 추가하지 않고 경고만 남긴다. 중복을 정리한 뒤 다시 적용해야 한다
+DO
+$$
+    BEGIN
+        IF to_regclass('member') IS NOT NULL THEN
+            IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_member_email') THEN
+                IF EXISTS (SELECT 1 FROM member GROUP BY email HAVING count(*) > 1) THEN
+                    RAISE WARNING 'member.email has duplicates, uk_member_email not added';
+                ELSE
+                    ALTER TABLE member ADD CONSTRAINT uk_member_email UNIQUE (email);
+                END IF;
+            END IF;
+
+            IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_member_phone_num') THEN
+                IF EXISTS (SELECT 1 FROM member GROUP BY phone_num HAVING count(*) > 1) THEN
+                    RAISE WARNING 'member.phone_num has duplicates, uk_member_phone_num not added';
+                ELSE
+                    ALTER TABLE member ADD CONSTRAINT uk_member_phone_num UNIQUE (phone_num);
+                END IF;
+            END IF;
+        END IF;
+
+        IF to_regclass('sns_info') IS NOT NULL THEN
+            IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_sns_info_sns_id_sns_type') THEN
+                IF EXISTS (SELECT 1 FROM sns_info GROUP BY sns_id, sns_type HAVING count(*) > 1) THEN
+                    RAISE WARNING 'sns_info(sns_id, sns_type) has duplicates, uk_sns_info_sns_id_sns_type not added';
+                ELSE
+                    ALTER TABLE sns_info
+                        ADD CONSTRAINT uk_sns_info_sns_id_sns_type UNIQUE (sns_id, sns_type);
+                END IF;
+            END IF;
+        END IF;
+    END
+$$;
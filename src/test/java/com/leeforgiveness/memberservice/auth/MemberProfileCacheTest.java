@@ -0,0 +1,111 @@
+package com.leeforgiveness.memberservice.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.leeforgiveness.memberservice.auth.application.MemberProfileCache;
+import com.leeforgiveness.memberservice.auth.domain.Member;
+import com.leeforgiveness.memberservice.auth.dto.MemberProfileDto;
+import com.leeforgiveness.memberservice.auth.infrastructure.MemberRepository;
+import com.leeforgiveness.memberservice.common.redis.RedisCacheConfig;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+public class MemberProfileCacheTest {
+
+    private static final MemberRepository memberRepository = Mockito.mock(MemberRepository.class);
+
+    private AnnotationConfigApplicationContext context;
+    private MemberProfileCache memberProfileCache;
+
+    @Configuration
+    @EnableCaching
+    static class CacheTestConfig {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(MemberProfileCache.CACHE_NAME);
+        }
+
+        @Bean
+        public MemberProfileCache memberProfileCache() {
+            return new MemberProfileCache(memberRepository);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        Mockito.reset(memberRepository);
+        context = new AnnotationConfigApplicationContext(CacheTestConfig.class);
+        memberProfileCache = context.getBean(MemberProfileCache.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        context.close();
+    }
+
+    private static Member member(String uuid, String name) {
+        return Member.builder().id(1L).uuid(uuid).email("a@b.com").name(name)
+            .phoneNum("010").profileImage(Member.DEFAULT_PROFILE_IMAGE).build();
+    }
+
+    @Test
+    @DisplayName("한 번 조회한 회원은 evict 전까지 DB를 다시 조회하지 않는다")
+    void readThroughAndEvictTest() {
+        Mockito.when(memberRepository.findByUuid("member1"))
+            .thenReturn(Optional.of(member("member1", "이름")))
+            .thenReturn(Optional.of(member("member1", "바뀐 이름")));
+
+        assertEquals("이름", memberProfileCache.findByUuid("member1").getName());
+        assertEquals("이름", memberProfileCache.findByUuid("member1").getName());
+        verify(memberRepository, times(1)).findByUuid("member1");
+
+        memberProfileCache.evict("member1");
+        assertEquals("바뀐 이름", memberProfileCache.findByUuid("member1").getName());
+        verify(memberRepository, times(2)).findByUuid("member1");
+    }
+
+    @Test
+    @DisplayName("없는 uuid도 캐시해 반복해서 조회하지 않는다")
+    void negativeCachingTest() {
+        Mockito.when(memberRepository.findByUuid("unknown")).thenReturn(Optional.empty());
+
+        assertNull(memberProfileCache.findByUuid("unknown"));
+        assertNull(memberProfileCache.findByUuid("unknown"));
+        verify(memberRepository, times(1)).findByUuid("unknown");
+    }
+
+    @Test
+    @DisplayName("redis 캐시 설정은 회원 정보를 JSON으로 저장하고 다시 읽을 수 있다")
+    void valueSerializerTest() {
+        SerializationPair<Object> valueSerializationPair = RedisCacheConfig
+            .memberProfileCacheConfiguration().getValueSerializationPair();
+
+        ByteBuffer serialized = valueSerializationPair.write(
+            MemberProfileDto.fromEntity(member("member1", "이름")));
+        byte[] json = new byte[serialized.remaining()];
+        serialized.duplicate().get(json);
+        MemberProfileDto memberProfileDto = (MemberProfileDto) valueSerializationPair.read(
+            serialized);
+
+        assertTrue(new String(json).startsWith("{"));
+        assertEquals("member1", memberProfileDto.getUuid());
+        assertEquals("이름", memberProfileDto.getName());
+    }
+}
@@ -0,0 +1,99 @@
+package com.leeforgiveness.memberservice.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.leeforgiveness.memberservice.auth.application.MemberProfileImageCache;
+import com.leeforgiveness.memberservice.auth.domain.Member;
+import com.leeforgiveness.memberservice.auth.dto.MemberProfileImageDto;
+import com.leeforgiveness.memberservice.auth.infrastructure.MemberRepository;
+import com.leeforgiveness.memberservice.common.redis.CacheInvalidationBroadcaster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class MemberProfileImageCacheTest {
+
+    private final MemberRepository memberRepository = Mockito.mock(MemberRepository.class);
+    private final CacheInvalidationBroadcaster cacheInvalidationBroadcaster = Mockito.mock(
+        CacheInvalidationBroadcaster.class);
+    private MemberProfileImageCache memberProfileImageCache;
+
+    @BeforeEach
+    public void setUp() {
+        memberProfileImageCache = new MemberProfileImageCache(memberRepository,
+            cacheInvalidationBroadcaster, new SimpleMeterRegistry(), 100, 300);
+        //member3은 가입하지 않은 회원
+        Mockito.when(memberRepository.findProfileImagesByUuidIn(anyList()))
+            .thenAnswer(invocation -> {
+                List<String> uuids = invocation.getArgument(0);
+                return uuids.stream()
+                    .filter(uuid -> !uuid.equals("member3"))
+                    .map(uuid -> new MemberProfileImageDto(uuid, "https://" + uuid + ".png"))
+                    .toList();
+            });
+    }
+
+    @Test
+    @DisplayName("참여자 프로필 이미지를 한 번에 조회하고, 없는 회원은 기본 이미지로 채운다")
+    void getProfileImagesTest() {
+        Map<String, String> profileImages = memberProfileImageCache.getProfileImages(
+            List.of("member1", "member2", "member3"));
+
+        assertEquals(Map.of(
+            "member1", "https://member1.png",
+            "member2", "https://member2.png",
+            "member3", Member.DEFAULT_PROFILE_IMAGE), profileImages);
+        verify(memberRepository, times(1)).findProfileImagesByUuidIn(anyList());
+        verify(memberRepository, Mockito.never()).findByUuid(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("캐시에 있는 회원은 다시 조회하지 않고, 비운 회원과 찾지 못했던 회원만 조회한다")
+    void fetchMissingOnlyTest() {
+        memberProfileImageCache.getProfileImages(List.of("member1", "member2", "member3"));
+        memberProfileImageCache.evict("member2");
+
+        memberProfileImageCache.getProfileImages(List.of("member1", "member2", "member3"));
+
+        ArgumentCaptor<List<String>> uuidsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(memberRepository, times(2)).findProfileImagesByUuidIn(uuidsCaptor.capture());
+        assertEquals(new HashSet<>(List.of("member2", "member3")),
+            new HashSet<>(uuidsCaptor.getAllValues().get(1)));
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안에서 비우면 커밋된 뒤에 비우고 다른 인스턴스에 전파한다")
+    void evictAfterCommitTest() {
+        memberProfileImageCache.getProfileImages(List.of("member1"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            memberProfileImageCache.evict("member1");
+            //커밋 전 조회는 캐시된 값을 쓴다
+            memberProfileImageCache.getProfileImages(List.of("member1"));
+            verify(memberRepository, times(1)).findProfileImagesByUuidIn(anyList());
+            verify(cacheInvalidationBroadcaster, Mockito.never()).publishEvict(any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(cacheInvalidationBroadcaster).publishEvict("memberProfileImage", "member1");
+        memberProfileImageCache.getProfileImages(List.of("member1"));
+        verify(memberRepository, times(2)).findProfileImagesByUuidIn(anyList());
+    }
+}
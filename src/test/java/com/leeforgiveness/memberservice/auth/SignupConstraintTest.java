@@ -0,0 +1,120 @@
+package com.leeforgiveness.memberservice.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.leeforgiveness.memberservice.config.FlywayConfig;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JPA가 만든 것과 같은 member, sns_info 테이블에 마이그레이션을 적용해 unique 제약이 추가되는지,
+ * 가입 중복 확인 쿼리가 먼저 걸린 항목을 알려주는지 확인한다.
+ */
+public class SignupConstraintTest {
+
+    //hibernate가 Member, SnsInfo 엔티티로 만드는 테이블 (unique 제약 제외)
+    static final String[] JPA_SCHEMA = {
+        "create table member (member_id bigint generated by default as identity primary key, "
+            + "email varchar(30) not null, name varchar(20) not null, "
+            + "phone_num varchar(20) not null, uuid varchar(255) not null, "
+            + "termination_status boolean not null, profile_image varchar(255))",
+        "create table sns_info (sns_info_id bigint generated by default as identity primary key, "
+            + "sns_type varchar(255) not null, sns_id varchar(255) not null, "
+            + "member_member_id bigint references member)"};
+
+    //MemberRepository.findSignupConflict와 같은 쿼리
+    static final String SIGNUP_CONFLICT_QUERY = "select case "
+        + "when exists (select 1 from sns_info s where s.sns_id = ? and s.sns_type = ?) "
+        + "then 'SNS' "
+        + "when exists (select 1 from member m where m.email = ?) then 'EMAIL' "
+        + "when exists (select 1 from member m where m.phone_num = ?) then 'PHONE_NUM' "
+        + "end";
+
+    private static EmbeddedPostgres embeddedPostgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    public static void setUp() {
+        try {
+            embeddedPostgres = EmbeddedPostgres.builder().start();
+        } catch (Exception e) {
+            assumeTrue(false, "embedded postgres를 실행할 수 없는 환경: " + e.getMessage());
+        }
+        jdbcTemplate = new JdbcTemplate(createSchema(embeddedPostgres.getPostgresDatabase()));
+        jdbcTemplate.update("insert into member (email, name, phone_num, uuid, termination_status) "
+            + "values ('a@b.com', '이름', '01012345678', 'member1', false)");
+        jdbcTemplate.update("insert into sns_info (sns_type, sns_id, member_member_id) "
+            + "values ('kakao', 'sns1', 1)");
+    }
+
+    static DataSource createSchema(DataSource dataSource) {
+        JdbcTemplate schemaTemplate = new JdbcTemplate(dataSource);
+        for (String ddl : JPA_SCHEMA) {
+            schemaTemplate.execute(ddl);
+        }
+        Flyway.configure()
+            .dataSource(dataSource)
+            .configuration(FlywayConfig.POSTGRESQL_LOCK_CONFIGURATION)
+            //application.yml과 같이 JPA 테이블이 있는 DB는 버전 0으로 baseline을 잡는다
+            .baselineOnMigrate(true)
+            .baselineVersion("0")
+            .load()
+            .migrate();
+        return dataSource;
+    }
+
+    @AfterAll
+    public static void tearDown() throws Exception {
+        if (embeddedPostgres != null) {
+            embeddedPostgres.close();
+        }
+    }
+
+    private String conflict(String snsId, String snsType, String email, String phoneNum) {
+        return jdbcTemplate.queryForObject(SIGNUP_CONFLICT_QUERY, String.class, snsId, snsType,
+            email, phoneNum);
+    }
+
+    @Test
+    @DisplayName("가입 중복 확인 쿼리는 SNS 계정, 이메일, 휴대폰 번호 순으로 먼저 걸린 항목을 반환한다")
+    void signupConflictQueryTest() {
+        assertEquals("SNS", conflict("sns1", "kakao", "a@b.com", "01012345678"));
+        assertEquals("EMAIL", conflict("sns2", "kakao", "a@b.com", "01012345678"));
+        assertEquals("PHONE_NUM", conflict("sns1", "naver", "c@d.com", "01012345678"));
+        assertNull(conflict("sns2", "kakao", "c@d.com", "01099999999"));
+    }
+
+    @Test
+    @DisplayName("확인을 지나친 중복 가입은 이름으로 구분되는 unique 제약 위반으로 실패한다")
+    void uniqueConstraintTest() {
+        DataIntegrityViolationException email = assertThrows(
+            DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "insert into member (email, name, phone_num, uuid, termination_status) "
+                    + "values ('a@b.com', '이름', '01000000000', 'member2', false)"));
+        assertTrue(email.getMostSpecificCause().getMessage().contains("uk_member_email"));
+
+        DataIntegrityViolationException phoneNum = assertThrows(
+            DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "insert into member (email, name, phone_num, uuid, termination_status) "
+                    + "values ('c@d.com', '이름', '01012345678', 'member2', false)"));
+        assertTrue(phoneNum.getMostSpecificCause().getMessage().contains("uk_member_phone_num"));
+
+        DataIntegrityViolationException snsInfo = assertThrows(
+            DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "insert into sns_info (sns_type, sns_id, member_member_id) "
+                    + "values ('kakao', 'sns1', 1)"));
+        assertTrue(snsInfo.getMostSpecificCause().getMessage()
+            .contains("uk_sns_info_sns_id_sns_type"));
+    }
+}
@@ -0,0 +1,151 @@
+package com.leeforgiveness.memberservice.auth;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 동시에 들어오는 SNS 가입을 embedded postgres에 실행해, 중복 확인을 세 번의 엔티티 조회로 하는 기존 경로와
+ * 한 번의 exists 쿼리로 하는 경로의 처리량을 비교한다. 두 경로 모두 member, sns_info를 insert하고 커밋한다.
+ * ./gradlew jmh -PjmhIncludes=SnsSignupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(8)
+public class SnsSignupBenchmark {
+
+    private static final String INSERT_MEMBER = "insert into member "
+        + "(email, name, phone_num, uuid, termination_status, profile_image) "
+        + "values (?, ?, ?, ?, false, ?) returning member_id";
+    private static final String INSERT_SNS_INFO = "insert into sns_info "
+        + "(sns_type, sns_id, member_member_id) values (?, ?, ?)";
+
+    private final AtomicLong sequence = new AtomicLong();
+    private EmbeddedPostgres embeddedPostgres;
+    private HikariDataSource dataSource;
+
+    @Setup
+    public void setUp() throws IOException {
+        embeddedPostgres = EmbeddedPostgres.builder().start();
+        SignupConstraintTest.createSchema(embeddedPostgres.getPostgresDatabase());
+
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setDataSource(embeddedPostgres.getPostgresDatabase());
+        hikariConfig.setMaximumPoolSize(8);
+        hikariConfig.setAutoCommit(false);
+        dataSource = new HikariDataSource(hikariConfig);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        dataSource.close();
+        embeddedPostgres.close();
+    }
+
+    //findBySnsIdAndSnsType, findByEmail, findByPhoneNum 후 insert
+    @Benchmark
+    public long threeLookups() throws SQLException {
+        long n = sequence.incrementAndGet();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean duplicate = exists(connection,
+                "select * from sns_info where sns_id = ? and sns_type = ?", "sns" + n, "kakao")
+                || exists(connection, "select * from member where email = ?", email(n))
+                || exists(connection, "select * from member where phone_num = ?", phoneNum(n));
+            return signup(connection, n, duplicate);
+        }
+    }
+
+    //findSignupConflict 후 insert
+    @Benchmark
+    public long singleExistsQuery() throws SQLException {
+        long n = sequence.incrementAndGet();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean duplicate;
+            try (PreparedStatement statement = connection.prepareStatement(
+                SignupConstraintTest.SIGNUP_CONFLICT_QUERY)) {
+                statement.setString(1, "sns" + n);
+                statement.setString(2, "kakao");
+                statement.setString(3, email(n));
+                statement.setString(4, phoneNum(n));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    duplicate = resultSet.getString(1) != null;
+                }
+            }
+            return signup(connection, n, duplicate);
+        }
+    }
+
+    private static String email(long n) {
+        return n + "@b.com";
+    }
+
+    private static String phoneNum(long n) {
+        return String.format("010%08d", n);
+    }
+
+    private static boolean exists(Connection connection, String sql, String... params)
+        throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setString(i + 1, params[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private static long signup(Connection connection, long n, boolean duplicate)
+        throws SQLException {
+        if (duplicate) {
+            connection.rollback();
+            return -1;
+        }
+
+        long memberId;
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_MEMBER)) {
+            statement.setString(1, email(n));
+            statement.setString(2, "이름");
+            statement.setString(3, phoneNum(n));
+            statement.setString(4, UUID.randomUUID().toString());
+            statement.setString(5, "https://ifh.cc/g/Vv1lrR.png");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                memberId = resultSet.getLong(1);
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SNS_INFO)) {
+            statement.setString(1, "kakao");
+            statement.setString(2, "sns" + n);
+            statement.setLong(3, memberId);
+            statement.executeUpdate();
+        }
+        connection.commit();
+        return memberId;
+    }
+}
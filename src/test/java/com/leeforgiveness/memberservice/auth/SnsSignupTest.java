@@ -0,0 +1,85 @@
+package com.leeforgiveness.memberservice.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.leeforgiveness.memberservice.auth.application.MemberProfileCache;
+import com.leeforgiveness.memberservice.auth.application.MemberProfileImageCache;
+import com.leeforgiveness.memberservice.auth.application.MemberServiceImpl;
+import com.leeforgiveness.memberservice.auth.domain.Member;
+import com.leeforgiveness.memberservice.auth.domain.SnsInfo;
+import com.leeforgiveness.memberservice.auth.dto.SnsMemberAddRequestDto;
+import com.leeforgiveness.memberservice.auth.infrastructure.MemberRepository;
+import com.leeforgiveness.memberservice.auth.infrastructure.RefreshTokenCertification;
+import com.leeforgiveness.memberservice.auth.infrastructure.SnsInfoRepository;
+import com.leeforgiveness.memberservice.auth.infrastructure.UserReportRepository;
+import com.leeforgiveness.memberservice.common.exception.CustomException;
+import com.leeforgiveness.memberservice.common.exception.ResponseStatus;
+import com.leeforgiveness.memberservice.common.kafka.KafkaProducerCluster;
+import com.leeforgiveness.memberservice.common.outbox.OutboxPublisher;
+import com.leeforgiveness.memberservice.common.security.JwtTokenProvider;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.InfluencerSubscriptionRepository;
+import java.sql.SQLException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+
+public class SnsSignupTest {
+
+    private MemberRepository memberRepository;
+    private SnsInfoRepository snsInfoRepository;
+    private MemberServiceImpl memberService;
+
+    private final SnsMemberAddRequestDto request = SnsMemberAddRequestDto.builder()
+        .snsId("sns1")
+        .snsType("kakao")
+        .email("a@b.com")
+        .name("이름")
+        .phoneNum("01012345678")
+        .build();
+
+    @BeforeEach
+    public void setUp() {
+        memberRepository = Mockito.mock(MemberRepository.class);
+        snsInfoRepository = Mockito.mock(SnsInfoRepository.class);
+        memberService = new MemberServiceImpl(memberRepository, snsInfoRepository,
+            Mockito.mock(JwtTokenProvider.class), Mockito.mock(UserReportRepository.class),
+            Mockito.mock(InfluencerSubscriptionRepository.class),
+            Mockito.mock(RefreshTokenCertification.class),
+            Mockito.mock(KafkaProducerCluster.class), Mockito.mock(OutboxPublisher.class),
+            Mockito.mock(MemberProfileImageCache.class), Mockito.mock(MemberProfileCache.class));
+    }
+
+    @Test
+    @DisplayName("가입 중복 확인은 쿼리 한 번으로 끝나고, 걸린 항목에 맞는 예외가 발생한다")
+    void signupConflictTest() {
+        Mockito.when(memberRepository.findSignupConflict("sns1", "kakao", "a@b.com",
+            "01012345678")).thenReturn("EMAIL");
+
+        CustomException exception = assertThrows(CustomException.class,
+            () -> memberService.snsAddMember(request));
+
+        assertEquals(ResponseStatus.DUPLICATE_EMAIL, exception.getResponseStatus());
+        verify(memberRepository, never()).findByEmail(any());
+        verify(memberRepository, never()).save(any(Member.class));
+        verify(snsInfoRepository, never()).findBySnsIdAndSnsType(any(), any());
+    }
+
+    @Test
+    @DisplayName("중복 확인 뒤 동시에 가입한 요청이 먼저 저장되면 unique 제약 이름으로 예외를 정한다")
+    void signupRaceTest() {
+        Mockito.when(snsInfoRepository.save(any(SnsInfo.class))).thenThrow(
+            new DataIntegrityViolationException("could not execute statement", new SQLException(
+                "duplicate key value violates unique constraint \"uk_sns_info_sns_id_sns_type\"")));
+
+        CustomException exception = assertThrows(CustomException.class,
+            () -> memberService.snsAddMember(request));
+
+        assertEquals(ResponseStatus.DUPLICATED_MEMBERS, exception.getResponseStatus());
+    }
+}
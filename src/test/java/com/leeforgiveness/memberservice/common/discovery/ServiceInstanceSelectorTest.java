@@ -0,0 +1,59 @@
+package com.leeforgiveness.memberservice.common.discovery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.leeforgiveness.memberservice.common.discovery.ServiceInstanceSelector.InstanceLease;
+import java.net.URI;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryClient;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryProperties;
+
+public class ServiceInstanceSelectorTest {
+
+    private static final String SERVICE_ID = "auctionpost-service";
+
+    private ServiceInstanceSelector serviceInstanceSelector;
+
+    @BeforeEach
+    public void setUp() {
+        SimpleDiscoveryProperties simpleDiscoveryProperties = new SimpleDiscoveryProperties();
+        simpleDiscoveryProperties.setInstances(Map.of(SERVICE_ID, List.of(
+            instance("a", 8081), instance("b", 8082), instance("c", 8083))));
+        serviceInstanceSelector = new ServiceInstanceSelector(
+            new SimpleDiscoveryClient(simpleDiscoveryProperties));
+    }
+
+    private static DefaultServiceInstance instance(String instanceId, int port) {
+        return new DefaultServiceInstance(instanceId, SERVICE_ID, "127.0.0.1", port, false);
+    }
+
+    @Test
+    @DisplayName("진행 중인 요청이 가장 적은 인스턴스를 고르고, 반납하면 그 인스턴스가 다시 선택된다")
+    void leastOutstandingTest() {
+        InstanceLease first = serviceInstanceSelector.choose(SERVICE_ID);
+        InstanceLease second = serviceInstanceSelector.choose(SERVICE_ID);
+        InstanceLease third = serviceInstanceSelector.choose(SERVICE_ID);
+
+        Set<URI> uris = new HashSet<>(List.of(first.getUri(), second.getUri(), third.getUri()));
+        assertEquals(3, uris.size());
+
+        second.release();
+        //여러 번 반납해도 한 번만 반영된다
+        second.release();
+        assertEquals(second.getUri(), serviceInstanceSelector.choose(SERVICE_ID).getUri());
+    }
+
+    @Test
+    @DisplayName("등록된 인스턴스가 없으면 null을 반환한다")
+    void noInstanceTest() {
+        assertNull(serviceInstanceSelector.choose("unknown-service"));
+    }
+}
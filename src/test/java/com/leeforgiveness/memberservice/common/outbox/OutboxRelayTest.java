@@ -0,0 +1,131 @@
+package com.leeforgiveness.memberservice.common.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leeforgiveness.memberservice.common.kafka.KafkaProducerCluster;
+import com.leeforgiveness.memberservice.common.kafka.Topics.Constant;
+import com.leeforgiveness.memberservice.common.kafka.dto.SubscriptionChangedDto;
+import com.leeforgiveness.memberservice.config.FlywayConfig;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class OutboxRelayTest {
+
+    private static EmbeddedPostgres embeddedPostgres;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final KafkaProducerCluster kafkaProducer = Mockito.mock(KafkaProducerCluster.class);
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private OutboxPublisher outboxPublisher;
+    private OutboxRelay outboxRelay;
+
+    @BeforeAll
+    public static void startDatabase() {
+        try {
+            embeddedPostgres = EmbeddedPostgres.builder().start();
+        } catch (Exception e) {
+            assumeTrue(false, "embedded postgres를 실행할 수 없는 환경: " + e.getMessage());
+        }
+
+        Flyway.configure()
+            .dataSource(embeddedPostgres.getPostgresDatabase())
+            .configuration(FlywayConfig.POSTGRESQL_LOCK_CONFIGURATION)
+            .load()
+            .migrate();
+    }
+
+    @AfterAll
+    public static void stopDatabase() throws Exception {
+        if (embeddedPostgres != null) {
+            embeddedPostgres.close();
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = new JdbcTemplate(embeddedPostgres.getPostgresDatabase());
+        jdbcTemplate.update("delete from outbox_event");
+        transactionTemplate = new TransactionTemplate(
+            new DataSourceTransactionManager(embeddedPostgres.getPostgresDatabase()));
+
+        OutboxEventRepository outboxEventRepository = new OutboxEventRepository(jdbcTemplate);
+        outboxPublisher = new OutboxPublisher(outboxEventRepository, objectMapper);
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaProducer, objectMapper,
+            transactionTemplate);
+    }
+
+    private void appendSubscriptionChanged(String... influencerUuids) {
+        transactionTemplate.executeWithoutResult(status -> outboxPublisher.appendAll(
+            Constant.SUBSCRIPTION_CHANGED,
+            List.of(influencerUuids).stream()
+                .map(influencerUuid -> SubscriptionChangedDto.builder()
+                    .subscriberUuid("subscriber")
+                    .influencerUuid(influencerUuid)
+                    .state("SUBSCRIBE")
+                    .build())
+                .toList(),
+            SubscriptionChangedDto::getInfluencerUuid));
+    }
+
+    private int outboxCount() {
+        return jdbcTemplate.queryForObject("select count(*) from outbox_event", Integer.class);
+    }
+
+    @Test
+    @DisplayName("기록된 순서대로 aggregate key와 함께 원래 타입으로 발행하고, 발행한 행은 지운다")
+    void relayTest() {
+        Mockito.when(kafkaProducer.sendMessage(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        appendSubscriptionChanged("inf1", "inf2", "inf1");
+
+        outboxRelay.relay();
+
+        ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object> payloadCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaProducer, times(3)).sendMessage(Mockito.eq(Constant.SUBSCRIPTION_CHANGED),
+            keyCaptor.capture(), payloadCaptor.capture());
+        assertEquals(List.of("inf1", "inf2", "inf1"), keyCaptor.getAllValues());
+        assertInstanceOf(SubscriptionChangedDto.class, payloadCaptor.getValue());
+        assertEquals(0, outboxCount());
+    }
+
+    @Test
+    @DisplayName("broker 전송이 실패하면 행을 지우지 않고 다음 주기에 다시 보낸다")
+    void relayFailureTest() {
+        Mockito.when(kafkaProducer.sendMessage(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(null))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+        appendSubscriptionChanged("inf1", "inf2");
+
+        outboxRelay.relay();
+        assertEquals(2, outboxCount());
+
+        Mockito.reset(kafkaProducer);
+        Mockito.when(kafkaProducer.sendMessage(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        outboxRelay.relay();
+
+        verify(kafkaProducer, times(2)).sendMessage(anyString(), anyString(), any());
+        assertEquals(0, outboxCount());
+    }
+}
@@ -0,0 +1,104 @@
+package com.leeforgiveness.memberservice.common.redis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * redis(L2)를 공유하는 두 인스턴스를 만들고, 한 인스턴스의 evict가 다른 인스턴스의 로컬 캐시(L1)까지 지우는지 확인한다.
+ */
+public class TwoLevelCacheTest {
+
+    private final ConcurrentMapCache remote = Mockito.spy(new ConcurrentMapCache("memberProfile"));
+    private final List<CacheInvalidationBroadcaster> broadcasters = new ArrayList<>();
+    private TwoLevelCache nodeA;
+    private TwoLevelCache nodeB;
+
+    @BeforeEach
+    public void setUp() {
+        nodeA = node();
+        nodeB = node();
+    }
+
+    //convertAndSend가 모든 인스턴스의 onMessage로 전달되는 redis 채널을 흉내낸다
+    private TwoLevelCache node() {
+        StringRedisTemplate stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        Mockito.when(stringRedisTemplate.convertAndSend(anyString(), anyString()))
+            .thenAnswer(invocation -> {
+                DefaultMessage message = new DefaultMessage(
+                    invocation.getArgument(0, String.class).getBytes(StandardCharsets.UTF_8),
+                    invocation.getArgument(1, String.class).getBytes(StandardCharsets.UTF_8));
+                broadcasters.forEach(broadcaster -> broadcaster.onMessage(message, null));
+                return (long) broadcasters.size();
+            });
+        CacheInvalidationBroadcaster broadcaster = new CacheInvalidationBroadcaster(
+            stringRedisTemplate, Mockito.mock(RedisMessageListenerContainer.class));
+        broadcasters.add(broadcaster);
+        return new TwoLevelCache(remote, Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(1)).build(), broadcaster);
+    }
+
+    @Test
+    @DisplayName("L1에 채운 값은 redis를 다시 조회하지 않고 읽는다")
+    void localHitTest() {
+        AtomicInteger loadCount = new AtomicInteger();
+
+        assertEquals("value", nodeA.get("member1", () -> {
+            loadCount.incrementAndGet();
+            return "value";
+        }));
+        assertEquals("value", nodeA.get("member1", String.class));
+        assertEquals("value", nodeA.get("member1", String.class));
+
+        assertEquals(1, loadCount.get());
+        //처음 L1에 없을 때만 redis를 조회한다
+        Mockito.verify(remote, Mockito.times(1)).get("member1");
+    }
+
+    @Test
+    @DisplayName("한 인스턴스에서 evict하면 redis와 다른 인스턴스의 L1도 비워져 새 값을 읽는다")
+    void crossInstanceEvictTest() {
+        nodeA.put("member1", "old");
+        assertEquals("old", nodeB.get("member1", String.class));
+
+        nodeA.evict("member1");
+        remote.put("member1", "new");
+
+        assertEquals("new", nodeB.get("member1", String.class));
+        assertEquals("new", nodeA.get("member1", String.class));
+    }
+
+    @Test
+    @DisplayName("없는 값(null)도 L1에 캐시한다")
+    void nullValueTest() {
+        AtomicInteger loadCount = new AtomicInteger();
+        Cache cache = nodeA;
+
+        assertNull(cache.get("unknown", () -> {
+            loadCount.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get("unknown", () -> {
+            loadCount.incrementAndGet();
+            return null;
+        }));
+
+        assertEquals(1, loadCount.get());
+    }
+}
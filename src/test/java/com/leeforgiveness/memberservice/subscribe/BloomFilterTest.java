@@ -0,0 +1,130 @@
+package com.leeforgiveness.memberservice.subscribe;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import com.leeforgiveness.memberservice.common.GenerateRandom;
+import com.leeforgiveness.memberservice.subscribe.dto.SubscriptionKeyDto;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.BloomFilter;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriptionBloomFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+public class BloomFilterTest {
+
+    private static final int INSERTIONS = 100_000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    @Test
+    @DisplayName("넣은 구독 쌍은 항상 포함된다고 판단한다")
+    void noFalseNegativeTest() {
+        BloomFilter bloomFilter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < INSERTIONS; i++) {
+            String key = GenerateRandom.subscriberUuid() + ":" + GenerateRandom.influencerUuid();
+            keys.add(key);
+            bloomFilter.put(key);
+        }
+
+        for (String key : keys) {
+            assertTrue(bloomFilter.mightContain(key));
+        }
+    }
+
+    @Test
+    @DisplayName("넣지 않은 구독 쌍의 오탐률은 설정한 확률 근처로 유지된다")
+    void falsePositiveRateTest() {
+        BloomFilter bloomFilter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+        for (int i = 0; i < INSERTIONS; i++) {
+            bloomFilter.put(GenerateRandom.subscriberUuid() + ":" + GenerateRandom.influencerUuid());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < INSERTIONS; i++) {
+            if (bloomFilter.mightContain(
+                GenerateRandom.subscriberUuid() + ":" + GenerateRandom.influencerUuid())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / INSERTIONS).isLessThan(FALSE_POSITIVE_PROBABILITY * 2);
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스의 구독 추가 메시지를 놓쳐도 redis에 남은 최근 추가분으로 필터에 넣는다")
+    void syncRecentTest() {
+        StringRedisTemplate stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        ZSetOperations<String, String> zSetOperations = Mockito.mock(ZSetOperations.class);
+        Mockito.when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        Mockito.when(stringRedisTemplate.opsForValue())
+            .thenReturn(Mockito.mock(ValueOperations.class));
+        SubscriptionBloomFilter subscriptionBloomFilter = new SubscriptionBloomFilter(
+            stringRedisTemplate, Mockito.mock(RedisMessageListenerContainer.class),
+            new SimpleMeterRegistry());
+
+        //재구축 중에 다른 인스턴스가 추가한 구독은 재구축을 마칠 때 넣는다
+        Mockito.when(zSetOperations.rangeByScore(eq("SUBSCRIPTION_BLOOM_FILTER:RECENT"),
+            anyDouble(), anyDouble())).thenReturn(Set.of("subscriber1:influencer"));
+        subscriptionBloomFilter.beginRebuild(10);
+        subscriptionBloomFilter.putAllToRebuild(
+            List.of(new SubscriptionKeyDto(1L, "subscriber0", "influencer")));
+        subscriptionBloomFilter.completeRebuild();
+
+        assertTrue(subscriptionBloomFilter.mightContain("subscriber0", "influencer"));
+        assertTrue(subscriptionBloomFilter.mightContain("subscriber1", "influencer"));
+        assertFalse(subscriptionBloomFilter.mightContain("subscriber2", "influencer"));
+
+        Mockito.when(zSetOperations.rangeByScore(eq("SUBSCRIPTION_BLOOM_FILTER:RECENT"),
+            anyDouble(), anyDouble())).thenReturn(Set.of("subscriber2:influencer"));
+        subscriptionBloomFilter.syncRecent();
+
+        assertTrue(subscriptionBloomFilter.mightContain("subscriber2", "influencer"));
+    }
+
+    @Test
+    @DisplayName("구독 추가를 전파하지 못하면 실패 시각을 남기고, 그 전에 만든 필터는 다음 재구축까지 쓰지 않는다")
+    void dirtyTest() {
+        StringRedisTemplate stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        ZSetOperations<String, String> zSetOperations = Mockito.mock(ZSetOperations.class);
+        ValueOperations<String, String> valueOperations = Mockito.mock(ValueOperations.class);
+        Mockito.when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        Mockito.when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        SubscriptionBloomFilter subscriptionBloomFilter = new SubscriptionBloomFilter(
+            stringRedisTemplate, Mockito.mock(RedisMessageListenerContainer.class),
+            new SimpleMeterRegistry());
+        subscriptionBloomFilter.beginRebuild(10);
+        subscriptionBloomFilter.completeRebuild();
+        assertFalse(subscriptionBloomFilter.mightContain("subscriber", "influencer"));
+
+        Mockito.when(zSetOperations.add(eq("SUBSCRIPTION_BLOOM_FILTER:RECENT"), anyString(),
+            anyDouble())).thenThrow(new RuntimeException("redis down"));
+        subscriptionBloomFilter.put("subscriber", "influencer");
+        ArgumentCaptor<String> dirtyAtCaptor = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq("SUBSCRIPTION_BLOOM_FILTER:DIRTY"),
+            dirtyAtCaptor.capture(), any(Duration.class));
+
+        //다른 인스턴스는 남은 실패 시각을 보고 필터를 쓰지 않는다
+        Mockito.when(valueOperations.get("SUBSCRIPTION_BLOOM_FILTER:DIRTY"))
+            .thenReturn(dirtyAtCaptor.getValue());
+        subscriptionBloomFilter.syncRecent();
+
+        assertTrue(subscriptionBloomFilter.mightContain("subscriber2", "influencer"));
+    }
+}
@@ -0,0 +1,387 @@
+package com.leeforgiveness.memberservice.subscribe;
+
+import static com.leeforgiveness.memberservice.common.ServerPath.INFLUENCER_SUMMARISE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.leeforgiveness.memberservice.common.discovery.ServiceInstanceSelector;
+import com.leeforgiveness.memberservice.subscribe.application.ExternalService;
+import com.leeforgiveness.memberservice.subscribe.dto.InfluencerSummaryDto;
+import com.sun.net.httpserver.HttpExchange;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker.State;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.SlidingWindowType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryClient;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryProperties;
+
+public class ExternalServiceTest {
+
+    private HttpServer httpServer;
+    private HttpClient httpClient;
+    private final AtomicInteger concurrentRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+    private final AtomicInteger toggleRequests = new AtomicInteger();
+    private final AtomicInteger partialRequests = new AtomicInteger();
+    private volatile boolean toggleFailing;
+    private final AtomicBoolean slowNext = new AtomicBoolean();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        httpServer.createContext("/summarise", exchange -> respond(exchange,
+            "[{\"name\":\"아이유\",\"profileImage\":\"image1\"},"
+                + "{\"name\":\"유인나\",\"profileImage\":\"image2\"}]"));
+        //요청한 uuid마다 이름이 uuid인 요약을 돌려주고, fail이 들어있는 chunk는 500으로 응답한다
+        httpServer.createContext("/echo", exchange -> {
+            int concurrent = concurrentRequests.incrementAndGet();
+            maxConcurrentRequests.accumulateAndGet(concurrent, Math::max);
+            try {
+                Thread.sleep(50);
+                List<String> influencerUuids = Arrays.stream(
+                        exchange.getRequestURI().getQuery().split("&"))
+                    .map(param -> param.substring(param.indexOf('=') + 1))
+                    .toList();
+                if (influencerUuids.contains("fail")) {
+                    exchange.sendResponseHeaders(500, -1);
+                    exchange.close();
+                    return;
+                }
+                respond(exchange, influencerUuids.stream()
+                    .map(uuid -> "{\"name\":\"" + uuid + "\",\"profileImage\":\"image\"}")
+                    .collect(Collectors.joining(",", "[", "]")));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrentRequests.decrementAndGet();
+            }
+        });
+        httpServer.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "[]");
+        });
+        //헤더와 body 일부만 보내고 2초 동안 멈춘다
+        httpServer.createContext("/stall", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write("[{\"name\":".getBytes(StandardCharsets.UTF_8));
+                responseBody.flush();
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        //toggleFailing 동안 500으로 응답한다
+        httpServer.createContext("/toggle", exchange -> {
+            toggleRequests.incrementAndGet();
+            if (toggleFailing) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            respond(exchange, "[{\"name\":\"아이유\",\"profileImage\":\"image1\"}]");
+        });
+        //missing을 뺀 uuid의 요약을 uuid 없이 돌려준다
+        httpServer.createContext("/partial", exchange -> {
+            partialRequests.incrementAndGet();
+            respond(exchange, queryUuids(exchange).stream()
+                .filter(uuid -> !uuid.equals("missing"))
+                .map(uuid -> "{\"name\":\"" + uuid + "\",\"profileImage\":\"image\"}")
+                .collect(Collectors.joining(",", "[", "]")));
+        });
+        //missing을 뺀 uuid의 요약을 uuid를 붙여 역순으로 돌려준다
+        httpServer.createContext("/keyed", exchange -> {
+            List<String> influencerUuids = new ArrayList<>(queryUuids(exchange));
+            Collections.reverse(influencerUuids);
+            respond(exchange, influencerUuids.stream()
+                .filter(uuid -> !uuid.equals("missing"))
+                .map(uuid -> "{\"influencerUuid\":\"" + uuid + "\",\"name\":\"" + uuid
+                    + "\",\"profileImage\":\"image\"}")
+                .collect(Collectors.joining(",", "[", "]")));
+        });
+        //잘못된 요청으로 보고 404로 응답한다
+        httpServer.createContext("/client-error", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        //토큰을 거부한다
+        httpServer.createContext("/unauthorized", exchange -> {
+            exchange.sendResponseHeaders(401, -1);
+            exchange.close();
+        });
+        //slowNext가 켜진 뒤 첫 요청만 1초 늦게 응답한다
+        httpServer.createContext("/hedge", exchange -> {
+            if (slowNext.getAndSet(false)) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            respond(exchange, "[{\"name\":\"아이유\",\"profileImage\":\"image1\"}]");
+        });
+        httpServer.setExecutor(Executors.newCachedThreadPool());
+        httpServer.start();
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        httpServer.stop(0);
+    }
+
+    private static List<String> queryUuids(HttpExchange exchange) {
+        return Arrays.stream(exchange.getRequestURI().getQuery().split("&"))
+            .map(param -> param.substring(param.indexOf('=') + 1))
+            .toList();
+    }
+
+    private static List<String> names(List<InfluencerSummaryDto> influencerSummaries) {
+        return influencerSummaries.stream()
+            .map(summary -> summary == null ? null : summary.getName())
+            .toList();
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private ExternalService externalService(String path, Duration requestTimeout) {
+        return externalService(path, requestTimeout, CircuitBreaker.ofDefaults("test"));
+    }
+
+    private ExternalService externalService(String path, Duration requestTimeout,
+        CircuitBreaker circuitBreaker) {
+        return new ExternalService(httpClient, requestTimeout, serviceInstanceSelector(), path,
+            2, 2, circuitBreaker, new SimpleMeterRegistry());
+    }
+
+    //stub 서버 하나만 등록된 고정 인스턴스 목록
+    private ServiceInstanceSelector serviceInstanceSelector() {
+        SimpleDiscoveryProperties simpleDiscoveryProperties = new SimpleDiscoveryProperties();
+        simpleDiscoveryProperties.setInstances(Map.of(INFLUENCER_SUMMARISE.getServiceId(),
+            List.of(new DefaultServiceInstance("stub", INFLUENCER_SUMMARISE.getServiceId(),
+                "127.0.0.1", httpServer.getAddress().getPort(), false))));
+        return new ServiceInstanceSelector(new SimpleDiscoveryClient(simpleDiscoveryProperties));
+    }
+
+    @Test
+    @DisplayName("비동기로 인플루언서 요약 정보를 조회한다")
+    void getInfluencerSummariseAsyncTest() throws Exception {
+        CompletableFuture<List<InfluencerSummaryDto>> future = externalService("/summarise",
+            Duration.ofSeconds(1)).getInfluencerSummariseAsync("Bearer token",
+            List.of("inf1", "inf2"));
+
+        List<InfluencerSummaryDto> influencerSummaries = future.get(2, TimeUnit.SECONDS);
+        assertEquals(2, influencerSummaries.size());
+        assertEquals("아이유", influencerSummaries.get(0).getName());
+        assertEquals("image2", influencerSummaries.get(1).getProfileImage());
+    }
+
+    @Test
+    @DisplayName("요청 timeout 안에 응답이 없으면 기다리지 않고 조회하지 못한 자리를 null로 채운다")
+    void getInfluencerSummariseTimeoutTest() {
+        long startedAt = System.nanoTime();
+
+        List<InfluencerSummaryDto> influencerSummaries = externalService("/slow",
+            Duration.ofMillis(200)).getInfluencerSummarise("Bearer token", List.of("inf1"));
+
+        assertEquals(1, influencerSummaries.size());
+        assertNull(influencerSummaries.get(0));
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.MILLISECONDS.toNanos(1500));
+    }
+
+    @Test
+    @DisplayName("헤더를 받은 뒤 body가 멈춰도 requestTimeout 안에 실패로 끝나고 circuit breaker 실패로 센다")
+    void stalledBodyTimeoutTest() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("test");
+        long startedAt = System.nanoTime();
+        List<InfluencerSummaryDto> influencerSummaries = externalService("/stall",
+            Duration.ofMillis(200), circuitBreaker).getInfluencerSummarise("Bearer token",
+            List.of("inf1"));
+
+        assertEquals(1, influencerSummaries.size());
+        assertNull(influencerSummaries.get(0));
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.MILLISECONDS.toNanos(1500));
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    @DisplayName("uuid를 chunk로 나누어 동시 요청 수를 제한해 보내고, 실패한 chunk만 비운 채 순서대로 합친다")
+    void getInfluencerSummariseInChunksTest() {
+        //chunk 크기 2, 동시 요청 2개: [inf1, inf2] [inf3, fail] [inf5, inf6] [inf7]
+        List<InfluencerSummaryDto> influencerSummaries = externalService("/echo",
+            Duration.ofSeconds(1)).getInfluencerSummarise("Bearer token",
+            List.of("inf1", "inf2", "inf3", "fail", "inf5", "inf6", "inf7"));
+
+        assertEquals(Arrays.asList("inf1", "inf2", null, null, "inf5", "inf6", "inf7"),
+            influencerSummaries.stream()
+                .map(summary -> summary == null ? null : summary.getName())
+                .toList());
+        assertTrue(maxConcurrentRequests.get() <= 2);
+    }
+
+    @Test
+    @DisplayName("응답에 uuid가 있으면 순서와 개수가 달라도 uuid로 대응시키고 빠진 uuid만 null로 둔다")
+    void matchByInfluencerUuidTest() {
+        List<InfluencerSummaryDto> influencerSummaries = externalService("/keyed",
+            Duration.ofSeconds(1)).getInfluencerSummarise("Bearer token",
+            List.of("inf1", "missing", "inf3"));
+
+        assertEquals(Arrays.asList("inf1", null, "inf3"), names(influencerSummaries));
+        assertEquals("inf3", influencerSummaries.get(2).getInfluencerUuid());
+    }
+
+    @Test
+    @DisplayName("응답에 uuid가 없고 개수가 다르면 chunk를 나눠 다시 요청해 빠진 uuid만 null로 둔다")
+    void sizeMismatchSplitTest() {
+        //chunk 크기 2: [inf1, missing]은 1개만 돌아와 [inf1] [missing]으로 다시 요청한다
+        List<InfluencerSummaryDto> influencerSummaries = externalService("/partial",
+            Duration.ofSeconds(1)).getInfluencerSummarise("Bearer token",
+            List.of("inf1", "missing", "inf3"));
+
+        assertEquals(Arrays.asList("inf1", null, "inf3"), names(influencerSummaries));
+        assertEquals("inf1", influencerSummaries.get(0).getInfluencerUuid());
+        assertEquals(4, partialRequests.get());
+    }
+
+    @Test
+    @DisplayName("실패율이 기준을 넘으면 circuit이 열려 요청을 보내지 않고, 대기 후 half-open 호출이 성공하면 다시 닫힌다")
+    void circuitBreakerTransitionTest() throws Exception {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("test", CircuitBreakerConfig.custom()
+            .slidingWindowType(SlidingWindowType.COUNT_BASED)
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMillis(200))
+            .permittedNumberOfCallsInHalfOpenState(2)
+            .build());
+        ExternalService externalService = externalService("/toggle", Duration.ofSeconds(1),
+            circuitBreaker);
+        List<String> influencerUuids = List.of("inf1");
+
+        toggleFailing = true;
+        for (int i = 0; i < 4; i++) {
+            assertNull(externalService.getInfluencerSummarise("Bearer token", influencerUuids)
+                .get(0));
+        }
+        assertEquals(State.OPEN, circuitBreaker.getState());
+
+        //열려 있는 동안은 서버에 요청하지 않는다
+        assertNull(externalService.getInfluencerSummarise("Bearer token", influencerUuids).get(0));
+        assertEquals(4, toggleRequests.get());
+
+        Thread.sleep(300);
+        toggleFailing = false;
+        assertEquals("아이유", externalService.getInfluencerSummarise("Bearer token",
+            influencerUuids).get(0).getName());
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+
+        externalService.getInfluencerSummarise("Bearer token", influencerUuids);
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        assertEquals(6, toggleRequests.get());
+    }
+
+    @Test
+    @DisplayName("4xx 응답은 조회하지 못한 자리를 null로 채우지만 circuit breaker 실패로 세지 않는다")
+    void clientErrorDoesNotOpenCircuitTest() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("test", CircuitBreakerConfig.custom()
+            .slidingWindowType(SlidingWindowType.COUNT_BASED)
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .build());
+        ExternalService externalService = externalService("/client-error", Duration.ofSeconds(1),
+            circuitBreaker);
+
+        for (int i = 0; i < 4; i++) {
+            assertNull(externalService.getInfluencerSummarise("Bearer token", List.of("inf1"))
+                .get(0));
+        }
+
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        assertEquals(4, circuitBreaker.getMetrics().getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    @DisplayName("401 응답은 다른 토큰으로 다시 요청할 수 있도록 UnauthorizedException으로 실패한다")
+    void unauthorizedTest() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("test");
+        ExternalService externalService = externalService("/unauthorized", Duration.ofSeconds(1),
+            circuitBreaker);
+
+        CompletionException e = assertThrows(CompletionException.class,
+            () -> externalService.getInfluencerSummarise("Bearer token", List.of("inf1")));
+
+        assertInstanceOf(ExternalService.UnauthorizedException.class, e.getCause());
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    @DisplayName("p95 안에 응답이 없으면 같은 요청을 한 번 더 보내 먼저 도착한 응답을 쓴다")
+    void hedgedRequestTest() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExternalService externalService = new ExternalService(httpClient, Duration.ofSeconds(3),
+            serviceInstanceSelector(), "/hedge", 2, 2, CircuitBreaker.ofDefaults("test"),
+            meterRegistry, true, 10, 20);
+        List<String> influencerUuids = List.of("inf1");
+        //p95를 계산할 만큼 빠른 호출을 쌓는다
+        for (int i = 0; i < 20; i++) {
+            externalService.getInfluencerSummarise("Bearer token", influencerUuids);
+        }
+
+        slowNext.set(true);
+        long startedAt = System.nanoTime();
+        List<InfluencerSummaryDto> influencerSummaries = externalService.getInfluencerSummarise(
+            "Bearer token", influencerUuids);
+
+        assertEquals("아이유", influencerSummaries.get(0).getName());
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.MILLISECONDS.toNanos(500));
+        //응답을 넘긴 뒤에 집계하므로 잠시 기다린다
+        Counter hedgeWonCounter = meterRegistry.get("external.influencer.summarise.hedge")
+            .tag("result", "won").counter();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (hedgeWonCounter.count() < 1.0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1.0, hedgeWonCounter.count());
+    }
+}
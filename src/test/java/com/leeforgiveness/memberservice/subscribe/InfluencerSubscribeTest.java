@@ -7,7 +7,9 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -17,33 +19,64 @@ import com.leeforgiveness.memberservice.common.kafka.EventType;
 import com.leeforgiveness.memberservice.common.kafka.KafkaProducerCluster;
 import com.leeforgiveness.memberservice.common.kafka.Topics.Constant;
 import com.leeforgiveness.memberservice.common.kafka.dto.AlarmDto;
+import com.leeforgiveness.memberservice.common.kafka.dto.NewAuctionShardDto;
 import com.leeforgiveness.memberservice.common.kafka.dto.SubscriberFilterVo;
-import com.leeforgiveness.memberservice.subscribe.application.ExternalService;
+import com.leeforgiveness.memberservice.common.kafka.dto.SubscriptionChangedDto;
+import com.leeforgiveness.memberservice.common.outbox.OutboxPublisher;
 import com.leeforgiveness.memberservice.subscribe.application.InfluencerSubscriptionServiceImpl;
+import com.leeforgiveness.memberservice.subscribe.application.InfluencerSummaryCache;
+import com.leeforgiveness.memberservice.subscribe.application.NewAuctionFanOut;
 import com.leeforgiveness.memberservice.subscribe.domain.InfluencerSubscription;
 import com.leeforgiveness.memberservice.subscribe.dto.InfluencerSubscribeRequestDto;
 import com.leeforgiveness.memberservice.subscribe.dto.InfluencerSummaryDto;
+import com.leeforgiveness.memberservice.subscribe.dto.PendingSubscriptionDto;
 import com.leeforgiveness.memberservice.subscribe.dto.SubscribedInfluencerResponseDto;
+import com.leeforgiveness.memberservice.subscribe.dto.SubscriberCursorDto;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.InfluencerSubscriptionBatchRepository;
 import com.leeforgiveness.memberservice.subscribe.infrastructure.InfluencerSubscriptionRepository;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriberCounter;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriberIndex;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriptionBloomFilter;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriptionWriteBuffer;
 import com.leeforgiveness.memberservice.subscribe.state.SubscribeState;
 import com.leeforgiveness.memberservice.subscribe.vo.IsSubscribedRequestVo;
 import com.leeforgiveness.memberservice.subscribe.vo.SubscribedInfluencerRequestVo;
+import com.leeforgiveness.memberservice.subscribe.vo.SubscriptionStatesRequestVo;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 public class InfluencerSubscribeTest {
 
     private InfluencerSubscriptionRepository influencerSubscriptionRepository = Mockito.mock(
         InfluencerSubscriptionRepository.class);
-    private ExternalService externalService = Mockito.mock(ExternalService.class);
+    private InfluencerSummaryCache influencerSummaryCache = Mockito.mock(
+        InfluencerSummaryCache.class);
     private InfluencerSubscriptionServiceImpl influencerSubscriptionService;
     private KafkaProducerCluster kafkaProducer = Mockito.mock(KafkaProducerCluster.class);
+    private SubscriberIndex subscriberIndex = Mockito.mock(SubscriberIndex.class);
+    private SubscriptionBloomFilter subscriptionBloomFilter = Mockito.mock(
+        SubscriptionBloomFilter.class);
+    private SubscriberCounter subscriberCounter = Mockito.mock(SubscriberCounter.class);
+    private InfluencerSubscriptionBatchRepository influencerSubscriptionBatchRepository = Mockito.mock(
+        InfluencerSubscriptionBatchRepository.class);
+    private NewAuctionFanOut newAuctionFanOut = Mockito.mock(NewAuctionFanOut.class);
+    private OutboxPublisher outboxPublisher = Mockito.mock(OutboxPublisher.class);
+    private PlatformTransactionManager transactionManager = Mockito.mock(
+        PlatformTransactionManager.class);
 
     private String subscriberUuid;
     private String influencerUuid;
@@ -51,7 +84,17 @@ public class InfluencerSubscribeTest {
     @BeforeEach
     public void setUp() {
         influencerSubscriptionService = new InfluencerSubscriptionServiceImpl(
-            influencerSubscriptionRepository, externalService, kafkaProducer);
+            influencerSubscriptionRepository, influencerSummaryCache, kafkaProducer, subscriberIndex,
+            subscriptionBloomFilter, subscriberCounter,
+            new SubscriptionWriteBuffer(false, influencerSubscriptionBatchRepository),
+            newAuctionFanOut, outboxPublisher,
+            new TransactionTemplate(transactionManager));
+        Mockito.when(subscriptionBloomFilter.mightContain(any(), any())).thenReturn(true);
+        Mockito.when(newAuctionFanOut.begin(any())).thenReturn("leaseToken");
+        Mockito.when(newAuctionFanOut.resumeAfterId(any(), Mockito.anyLong()))
+            .thenAnswer(invocation -> invocation.getArgument(1));
+        Mockito.when(kafkaProducer.sendMessage(any(), any()))
+            .thenReturn(CompletableFuture.completedFuture(null));
 
         subscriberUuid = GenerateRandom.subscriberUuid();
         influencerUuid = GenerateRandom.influencerUuid();
@@ -61,10 +104,8 @@ public class InfluencerSubscribeTest {
     @DisplayName("사용자가 구독한 적이 없던 인플루언서를 구독한다.")
     void subscribeNewInfluencerTest() {
         //given
-        Mockito.when(
-                influencerSubscriptionRepository.findBySubscriberUuidAndInfluencerUuid(
-                    subscriberUuid, influencerUuid))
-            .thenReturn(Optional.empty());
+        Mockito.when(influencerSubscriptionRepository.upsertSubscribe(subscriberUuid,
+            influencerUuid)).thenReturn(Optional.of(true));
 
         //when
         influencerSubscriptionService.subscribe(
@@ -74,30 +115,27 @@ public class InfluencerSubscribeTest {
                 .build());
 
         //then
-        verify(influencerSubscriptionRepository).findBySubscriberUuidAndInfluencerUuid(
-            subscriberUuid, influencerUuid);
-        verify(influencerSubscriptionRepository).save(argThat(argument ->
-            argument.getSubscriberUuid().equals(subscriberUuid) &&
-                argument.getInfluencerUuid().equals(influencerUuid) &&
-                //state는 레코드가 데이터베이스에 저장될때 기본값 SUBSCRIBE로 정해지므로 서비스 로직에서는 null임
-                argument.getState() == null
-        ));
+        verify(influencerSubscriptionRepository).upsertSubscribe(subscriberUuid, influencerUuid);
+        //조회 후 저장하지 않고 upsert 한 번으로 처리한다
+        verify(influencerSubscriptionRepository, never()).findBySubscriberUuidAndInfluencerUuid(
+            any(), any());
+        verify(influencerSubscriptionRepository, never()).save(any());
+        verify(subscriberCounter).increment(influencerUuid);
+
+        ArgumentCaptor<SubscriptionChangedDto> eventCaptor = ArgumentCaptor.forClass(
+            SubscriptionChangedDto.class);
+        verify(outboxPublisher).append(eq(Constant.SUBSCRIPTION_CHANGED), eq(influencerUuid),
+            eventCaptor.capture());
+        assertEquals(subscriberUuid, eventCaptor.getValue().getSubscriberUuid());
+        assertEquals(SubscribeState.SUBSCRIBE.name(), eventCaptor.getValue().getState());
     }
 
     @Test
     @DisplayName("사용자가 구독 취소했던 인플루언서를 다시 구독한다.")
     void subscribeInfluencerAgainTest() {
         //given
-        InfluencerSubscription influencerSubscription = InfluencerSubscription.builder()
-            .id(1L)
-            .subscriberUuid(subscriberUuid)
-            .influencerUuid(influencerUuid)
-            .state(SubscribeState.UNSUBSCRIBE)
-            .build();
-
-        Mockito.when(
-            influencerSubscriptionRepository.findBySubscriberUuidAndInfluencerUuid(
-                subscriberUuid, influencerUuid)).thenReturn(Optional.of(influencerSubscription));
+        Mockito.when(influencerSubscriptionRepository.upsertSubscribe(subscriberUuid,
+            influencerUuid)).thenReturn(Optional.of(false));
 
         //when
         influencerSubscriptionService.subscribe(
@@ -106,47 +144,33 @@ public class InfluencerSubscribeTest {
                 .influencerUuid(influencerUuid).build());
 
         //then
-        verify(influencerSubscriptionRepository).findBySubscriberUuidAndInfluencerUuid(
-            subscriberUuid, influencerUuid);
-        verify(influencerSubscriptionRepository).save(argThat(argument ->
-            argument.getId().equals(influencerSubscription.getId()) &&
-                argument.getSubscriberUuid().equals(influencerSubscription.getSubscriberUuid()) &&
-                argument.getInfluencerUuid().equals(influencerSubscription.getInfluencerUuid()) &&
-                argument.getState().equals(SubscribeState.SUBSCRIBE)
-        ));
+        verify(influencerSubscriptionRepository).upsertSubscribe(subscriberUuid, influencerUuid);
+        verify(influencerSubscriptionRepository, never()).save(any());
+        verify(subscriptionBloomFilter).put(subscriberUuid, influencerUuid);
+        verify(subscriberCounter).increment(influencerUuid);
     }
 
     @Test
     @DisplayName("사용자가 이미 구독했던 인플루언서를 구독하면 예외를 발생시킨다.")
     void subscribeAlreadySubscribedInfluencerExceptionTest() {
         //given
-        Mockito.when(
-                influencerSubscriptionRepository.findBySubscriberUuidAndInfluencerUuid(
-                    subscriberUuid, influencerUuid))
-            .thenReturn(Optional.of(new InfluencerSubscription(1L, subscriberUuid, influencerUuid,
-                SubscribeState.SUBSCRIBE)));
+        Mockito.when(influencerSubscriptionRepository.upsertSubscribe(subscriberUuid,
+            influencerUuid)).thenReturn(Optional.empty());
 
         //when & then
         assertThrows(CustomException.class, () -> influencerSubscriptionService.subscribe(
             InfluencerSubscribeRequestDto.builder().subscriberUuid(subscriberUuid)
                 .influencerUuid(influencerUuid).build()));
+        verify(subscriberCounter, never()).increment(any());
+        verify(outboxPublisher, never()).append(any(), any(), any());
     }
 
     @Test
     @DisplayName("사용자가 구독 중인 인플루언서를 구독취소한다.")
     void unsubscribeInfluencerTest() {
         //given
-        InfluencerSubscription influencerSubscription = InfluencerSubscription.builder()
-            .id(1L)
-            .subscriberUuid(subscriberUuid)
-            .influencerUuid(influencerUuid)
-            .state(SubscribeState.SUBSCRIBE)
-            .build();
-
-        Mockito.when(
-                influencerSubscriptionRepository.findBySubscriberUuidAndInfluencerUuid(
-                    subscriberUuid, influencerUuid))
-            .thenReturn(Optional.of(influencerSubscription));
+        Mockito.when(influencerSubscriptionRepository.unsubscribeIfSubscribed(subscriberUuid,
+            influencerUuid)).thenReturn(1);
 
         //when
         influencerSubscriptionService.unsubscribe(
@@ -155,23 +179,20 @@ public class InfluencerSubscribeTest {
         );
 
         //then
-        verify(influencerSubscriptionRepository).findBySubscriberUuidAndInfluencerUuid(
-            subscriberUuid, influencerUuid);
-        verify(influencerSubscriptionRepository).save(argThat(argument ->
-            argument.getId().equals(influencerSubscription.getId()) &&
-                argument.getSubscriberUuid().equals(influencerSubscription.getSubscriberUuid()) &&
-                argument.getInfluencerUuid().equals(influencerSubscription.getInfluencerUuid()) &&
-                argument.getState().equals(SubscribeState.UNSUBSCRIBE)
-        ));
+        verify(influencerSubscriptionRepository).unsubscribeIfSubscribed(subscriberUuid,
+            influencerUuid);
+        verify(influencerSubscriptionRepository, never()).save(any());
+        verify(subscriberIndex).remove(subscriberUuid, influencerUuid);
+        verify(subscriberCounter).decrement(influencerUuid);
     }
 
     @Test
     @DisplayName("사용자가 구독한 적이 없는 인플루언서를 구독취소하면 예외를 발생시킨다.")
     void unsubscribeNewInfluencerExceptionTest() {
         //given
-        Mockito.when(
-            influencerSubscriptionRepository.findBySubscriberUuidAndInfluencerUuid(
-                subscriberUuid, influencerUuid)).thenReturn(Optional.empty());
+        //구독 행이 없으면 바뀐 행도 없다
+        Mockito.when(influencerSubscriptionRepository.unsubscribeIfSubscribed(subscriberUuid,
+            influencerUuid)).thenReturn(0);
 
         //when & then
         assertThrows(CustomException.class, () -> {
@@ -185,17 +206,9 @@ public class InfluencerSubscribeTest {
     @DisplayName("사용자가 구독 취소했던 인플루언서를 구독취소하면 예외를 발생시킨다.")
     void unsubscribeAlreadyUnsubscribedInfluencerExceptionTest() {
         //given
-        InfluencerSubscription influencerSubscription = InfluencerSubscription.builder()
-            .id(1L)
-            .subscriberUuid(subscriberUuid)
-            .influencerUuid(influencerUuid)
-            .state(SubscribeState.UNSUBSCRIBE)
-            .build();
-
-        Mockito.when(
-                influencerSubscriptionRepository.findBySubscriberUuidAndInfluencerUuid(
-                    subscriberUuid, influencerUuid))
-            .thenReturn(Optional.of(influencerSubscription));
+        //state = 'SUBSCRIBE' 조건에 걸리지 않아 바뀐 행이 없다
+        Mockito.when(influencerSubscriptionRepository.unsubscribeIfSubscribed(subscriberUuid,
+            influencerUuid)).thenReturn(0);
 
         //when & then
         assertThrows(CustomException.class, () -> {
@@ -203,6 +216,7 @@ public class InfluencerSubscribeTest {
                 InfluencerSubscribeRequestDto.builder().subscriberUuid(subscriberUuid)
                     .influencerUuid(influencerUuid).build());
         });
+        verify(subscriberCounter, never()).decrement(any());
     }
 
     @Test
@@ -223,11 +237,12 @@ public class InfluencerSubscribeTest {
                 .build()
         );
 
-        Mockito.when(influencerSubscriptionRepository.findBySubscriberUuidAndState(
-            subscriberUuid, SubscribeState.SUBSCRIBE
-        )).thenReturn(influencerSubscriptions);
+        Mockito.when(
+            influencerSubscriptionRepository.findBySubscriberUuidAndStateAndIdLessThanOrderByIdDesc(
+                eq(subscriberUuid), eq(SubscribeState.SUBSCRIBE), eq(Long.MAX_VALUE),
+                any(Pageable.class))).thenReturn(influencerSubscriptions);
 
-        Mockito.when(externalService.getInfluencerSummarise(
+        Mockito.when(influencerSummaryCache.getInfluencerSummarise(
             authorization, List.of(influencerUuid)
         )).thenReturn(List.of(new InfluencerSummaryDto(name, profileImage)));
 
@@ -243,6 +258,73 @@ public class InfluencerSubscribeTest {
             .getProfileImage()).isEqualTo(profileImage);
     }
 
+    @Test
+    @DisplayName("구독 리스트는 size 만큼만 조회하고, 다음 페이지가 있으면 마지막 구독 id를 nextCursor로 반환한다")
+    void getSubscribedInfluencerInfosPageTest() {
+        String authorization = "authorization";
+        SubscribedInfluencerRequestVo subscribedInfluencerRequestVo = SubscribedInfluencerRequestVo.builder()
+            .subscriberUuid(subscriberUuid)
+            .authorization(authorization)
+            .cursor(100L)
+            .size(2)
+            .build();
+
+        //size + 1 개가 조회되면 다음 페이지가 있다
+        Mockito.when(
+            influencerSubscriptionRepository.findBySubscriberUuidAndStateAndIdLessThanOrderByIdDesc(
+                subscriberUuid, SubscribeState.SUBSCRIBE, 100L, PageRequest.of(0, 3)))
+            .thenReturn(List.of(
+                InfluencerSubscription.builder().id(90L).influencerUuid("influencer1").build(),
+                InfluencerSubscription.builder().id(80L).influencerUuid("influencer2").build(),
+                InfluencerSubscription.builder().id(70L).influencerUuid("influencer3").build()));
+        Mockito.when(influencerSummaryCache.getInfluencerSummarise(authorization,
+            List.of("influencer1", "influencer2"))).thenReturn(List.of(
+            new InfluencerSummaryDto("name1", "https://1.png"),
+            new InfluencerSummaryDto("name2", "https://2.png")));
+
+        SubscribedInfluencerResponseDto subscribedInfluencerResponseDto =
+            influencerSubscriptionService.getSubscriptionInfos(subscribedInfluencerRequestVo);
+
+        assertThat(subscribedInfluencerResponseDto.getInfluencerSummaries()).hasSize(2);
+        assertEquals(80L, subscribedInfluencerResponseDto.getNextCursor());
+        verify(influencerSummaryCache).getInfluencerSummarise(authorization,
+            List.of("influencer1", "influencer2"));
+    }
+
+    @Test
+    @DisplayName("구독 리스트를 Mono로 조회하면 DB 조회는 boundedElastic 스레드에서 실행된다")
+    void getSubscriptionInfosReactiveTest() {
+        String authorization = "authorization";
+        SubscribedInfluencerRequestVo subscribedInfluencerRequestVo = SubscribedInfluencerRequestVo.builder()
+            .subscriberUuid(subscriberUuid)
+            .authorization(authorization)
+            .size(1)
+            .build();
+
+        AtomicReference<String> queryThread = new AtomicReference<>();
+        Mockito.when(
+            influencerSubscriptionRepository.findBySubscriberUuidAndStateAndIdLessThanOrderByIdDesc(
+                subscriberUuid, SubscribeState.SUBSCRIBE, Long.MAX_VALUE, PageRequest.of(0, 2)))
+            .thenAnswer(invocation -> {
+                queryThread.set(Thread.currentThread().getName());
+                return List.of(
+                    InfluencerSubscription.builder().id(90L).influencerUuid("influencer1").build(),
+                    InfluencerSubscription.builder().id(80L).influencerUuid("influencer2").build());
+            });
+        Mockito.when(influencerSummaryCache.getInfluencerSummariseAsync(authorization,
+            List.of("influencer1"))).thenReturn(CompletableFuture.completedFuture(
+            List.of(new InfluencerSummaryDto("name1", "https://1.png"))));
+
+        SubscribedInfluencerResponseDto subscribedInfluencerResponseDto = influencerSubscriptionService
+            .getSubscriptionInfosReactive(subscribedInfluencerRequestVo)
+            .block(Duration.ofSeconds(5));
+
+        assertThat(subscribedInfluencerResponseDto.getInfluencerSummaries()).hasSize(1);
+        assertEquals(90L, subscribedInfluencerResponseDto.getNextCursor());
+        assertThat(queryThread.get()).startsWith("boundedElastic");
+        verify(influencerSummaryCache, never()).getInfluencerSummarise(any(), any());
+    }
+
     @Test
     @DisplayName("사용자가 아무도 구독하지 않았다면 null을 반환한다.")
     void noneSubscribedTest() {
@@ -253,10 +335,10 @@ public class InfluencerSubscribeTest {
 
         List<InfluencerSubscription> influencerSubscriptions = new ArrayList<>();
 
-        Mockito.when(influencerSubscriptionRepository.findBySubscriberUuidAndState(
-            subscribedInfluencerRequestVo.getSubscriberUuid(),
-            SubscribeState.SUBSCRIBE
-        )).thenReturn(influencerSubscriptions);
+        Mockito.when(
+            influencerSubscriptionRepository.findBySubscriberUuidAndStateAndIdLessThanOrderByIdDesc(
+                eq(subscribedInfluencerRequestVo.getSubscriberUuid()), eq(SubscribeState.SUBSCRIBE),
+                eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(influencerSubscriptions);
 
         //when
         SubscribedInfluencerResponseDto subscribedInfluencerResponseDto =
@@ -267,28 +349,35 @@ public class InfluencerSubscribeTest {
     }
 
     @Test
-    @DisplayName("구독한 인플루언서의 정보가 없으면 null을 반환한다.")
+    @DisplayName("구독한 인플루언서의 정보를 하나도 가져오지 못해도 다음 페이지 cursor는 반환한다.")
     void noneInfluencerInfoTest() {
         //given
         String authorization = "authorization";
         SubscribedInfluencerRequestVo subscribedInfluencerRequestVo = SubscribedInfluencerRequestVo.builder()
             .authorization(authorization)
             .subscriberUuid(subscriberUuid)
+            .size(1)
             .build();
 
-        Mockito.when(influencerSubscriptionRepository.findBySubscriberUuidAndState(
-            subscribedInfluencerRequestVo.getSubscriberUuid(),
-            SubscribeState.SUBSCRIBE
-        )).thenReturn(List.of(
+        Mockito.when(
+            influencerSubscriptionRepository.findBySubscriberUuidAndStateAndIdLessThanOrderByIdDesc(
+                eq(subscribedInfluencerRequestVo.getSubscriberUuid()), eq(SubscribeState.SUBSCRIBE),
+                eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(List.of(
             InfluencerSubscription.builder()
-                .id(1L)
+                .id(2L)
                 .subscriberUuid(subscriberUuid)
                 .influencerUuid(influencerUuid)
                 .state(SubscribeState.SUBSCRIBE)
+                .build(),
+            InfluencerSubscription.builder()
+                .id(1L)
+                .subscriberUuid(subscriberUuid)
+                .influencerUuid("influencer2")
+                .state(SubscribeState.SUBSCRIBE)
                 .build()
         ));
 
-        Mockito.when(externalService.getInfluencerSummarise(authorization,
+        Mockito.when(influencerSummaryCache.getInfluencerSummarise(authorization,
             List.of(influencerUuid))).thenReturn(List.of());
 
         //when
@@ -297,7 +386,8 @@ public class InfluencerSubscribeTest {
                 subscribedInfluencerRequestVo);
 
         //then
-        assertNull(subscribedInfluencerResponseDto);
+        assertTrue(subscribedInfluencerResponseDto.getInfluencerSummaries().isEmpty());
+        assertEquals(2L, subscribedInfluencerResponseDto.getNextCursor());
     }
 
     @Test
@@ -386,4 +476,525 @@ public class InfluencerSubscribeTest {
         assertEquals(Constant.ALARM, topicCaptor.getValue());
         assertEquals(alarmDto, messageCaptor.getValue());
     }
+
+    @Test
+    @DisplayName("구독자가 많으면 정해진 크기의 청크로 나누어 알림 메시지를 보낸다")
+    void sendNewAuctionAlarmInChunksTest() {
+        SubscriberFilterVo subscriberFilterVo = SubscriberFilterVo.builder()
+            .auctionUuid(GenerateRandom.auctionUuid())
+            .influencerUuid(influencerUuid)
+            .influencerName("아이유")
+            .build();
+
+        List<SubscriberCursorDto> firstChunk = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            firstChunk.add(new SubscriberCursorDto(id, GenerateRandom.subscriberUuid()));
+        }
+        List<SubscriberCursorDto> lastChunk = List.of(
+            new SubscriberCursorDto(1001L, subscriberUuid));
+
+        Mockito.when(influencerSubscriptionRepository.findSubscriberChunkInRange(
+                eq(influencerUuid), eq(SubscribeState.SUBSCRIBE), eq(0L), eq(Long.MAX_VALUE),
+                any(Pageable.class)))
+            .thenReturn(firstChunk);
+        Mockito.when(influencerSubscriptionRepository.findSubscriberChunkInRange(
+                eq(influencerUuid), eq(SubscribeState.SUBSCRIBE), eq(1000L), eq(Long.MAX_VALUE),
+                any(Pageable.class)))
+            .thenReturn(lastChunk);
+
+        influencerSubscriptionService.sendNewAuctionAlarmToSubscriber(subscriberFilterVo);
+
+        ArgumentCaptor<Object> messageCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaProducer, times(2)).sendMessage(eq(Constant.ALARM), messageCaptor.capture());
+
+        List<Object> alarms = messageCaptor.getAllValues();
+        assertThat(((AlarmDto) alarms.get(0)).getReceiverUuids()).hasSize(1000);
+        assertThat(((AlarmDto) alarms.get(1)).getReceiverUuids()).containsExactly(subscriberUuid);
+        verify(influencerSubscriptionRepository, never()).findByInfluencerUuidAndState(
+            influencerUuid, SubscribeState.SUBSCRIBE);
+        verify(newAuctionFanOut).checkpoint(subscriberFilterVo.getAuctionUuid(), "leaseToken",
+            1000L);
+        verify(newAuctionFanOut).checkpoint(subscriberFilterVo.getAuctionUuid(), "leaseToken",
+            1001L);
+        verify(newAuctionFanOut).finish(subscriberFilterVo.getAuctionUuid(), "leaseToken", true);
+    }
+
+    @Test
+    @DisplayName("구독자가 없으면 알림 메시지를 보내지 않는다")
+    void sendNewAuctionAlarmWithoutSubscriberTest() {
+        SubscriberFilterVo subscriberFilterVo = SubscriberFilterVo.builder()
+            .auctionUuid(GenerateRandom.auctionUuid())
+            .influencerUuid(influencerUuid)
+            .influencerName("아이유")
+            .build();
+
+        Mockito.when(influencerSubscriptionRepository.findSubscriberChunkInRange(
+                eq(influencerUuid), eq(SubscribeState.SUBSCRIBE), eq(0L), eq(Long.MAX_VALUE),
+                any(Pageable.class)))
+            .thenReturn(List.of());
+
+        influencerSubscriptionService.sendNewAuctionAlarmToSubscriber(subscriberFilterVo);
+
+        verify(kafkaProducer, never()).sendMessage(any(), any());
+    }
+
+    @Test
+    @DisplayName("bloom filter에 없는 구독이면 인덱스와 DB를 조회하지 않고 false를 반환한다")
+    void isSubscribedBloomFilterNegativeTest() {
+        Mockito.when(subscriptionBloomFilter.mightContain(subscriberUuid, influencerUuid))
+            .thenReturn(false);
+
+        Boolean isSubscribed = influencerSubscriptionService.isSubscribed(
+            new IsSubscribedRequestVo(subscriberUuid, influencerUuid));
+
+        assertFalse(isSubscribed);
+        verify(subscriberIndex, never()).isMember(any(), any());
+        verify(influencerSubscriptionRepository, never()).findBySubscriberUuidAndInfluencerUuid(
+            any(), any());
+    }
+
+    @Test
+    @DisplayName("bloom filter를 통과했지만 구독하지 않았다면 오탐으로 기록한다")
+    void isSubscribedBloomFilterFalsePositiveTest() {
+        Mockito.when(
+                influencerSubscriptionRepository.findBySubscriberUuidAndInfluencerUuid(subscriberUuid,
+                    influencerUuid))
+            .thenReturn(Optional.empty());
+
+        Boolean isSubscribed = influencerSubscriptionService.isSubscribed(
+            new IsSubscribedRequestVo(subscriberUuid, influencerUuid));
+
+        assertFalse(isSubscribed);
+        verify(subscriptionBloomFilter).recordFalsePositive();
+    }
+
+    @Test
+    @DisplayName("구독 인덱스가 준비되어 있으면 DB를 조회하지 않고 구독 여부를 반환한다")
+    void isSubscribedFromIndexTest() {
+        Mockito.when(subscriberIndex.isMember(subscriberUuid, influencerUuid))
+            .thenReturn(Optional.of(true));
+
+        Boolean isSubscribed = influencerSubscriptionService.isSubscribed(
+            new IsSubscribedRequestVo(subscriberUuid, influencerUuid));
+
+        assertTrue(isSubscribed);
+        verify(influencerSubscriptionRepository, never()).findBySubscriberUuidAndInfluencerUuid(
+            any(), any());
+    }
+
+    @Test
+    @DisplayName("구독 인덱스를 조회하지 못하면 DB에서 구독 여부를 조회한다")
+    void isSubscribedIndexFailureFallbackTest() {
+        Mockito.when(subscriberIndex.isMember(subscriberUuid, influencerUuid))
+            .thenThrow(new IllegalStateException("redis down"));
+        Mockito.when(
+                influencerSubscriptionRepository.findBySubscriberUuidAndInfluencerUuid(subscriberUuid,
+                    influencerUuid))
+            .thenReturn(Optional.of(InfluencerSubscription.builder()
+                .state(SubscribeState.SUBSCRIBE)
+                .build()));
+
+        Boolean isSubscribed = influencerSubscriptionService.isSubscribed(
+            new IsSubscribedRequestVo(subscriberUuid, influencerUuid));
+
+        assertTrue(isSubscribed);
+    }
+
+    @Test
+    @DisplayName("구독하면 구독 인덱스에 추가하고, 인덱스 갱신에 실패하면 인덱스를 사용하지 않도록 표시한다")
+    void subscribeUpdatesIndexTest() {
+        Mockito.when(influencerSubscriptionRepository.upsertSubscribe(subscriberUuid,
+            influencerUuid)).thenReturn(Optional.of(true));
+        Mockito.doThrow(new IllegalStateException("redis down"))
+            .when(subscriberIndex).add(subscriberUuid, influencerUuid);
+
+        influencerSubscriptionService.subscribe(
+            InfluencerSubscribeRequestDto.builder()
+                .subscriberUuid(subscriberUuid)
+                .influencerUuid(influencerUuid)
+                .build());
+
+        verify(subscriptionBloomFilter).put(subscriberUuid, influencerUuid);
+        verify(subscriberIndex).add(subscriberUuid, influencerUuid);
+        verify(subscriberIndex).markNotReady();
+    }
+
+    @Test
+    @DisplayName("이미 끝난 경매 알림은 다시 보내지 않는다")
+    void sendNewAuctionAlarmSkipDuplicateTest() {
+        SubscriberFilterVo subscriberFilterVo = SubscriberFilterVo.builder()
+            .auctionUuid("auctionUuid")
+            .influencerUuid(influencerUuid)
+            .influencerName("아이유")
+            .build();
+        Mockito.when(newAuctionFanOut.begin("auctionUuid")).thenReturn(null);
+
+        influencerSubscriptionService.sendNewAuctionAlarmToSubscriber(subscriberFilterVo);
+
+        verify(influencerSubscriptionRepository, never()).findSubscriberChunkInRange(any(), any(),
+            any(), any(), any());
+        verify(kafkaProducer, never()).sendMessage(any(), any());
+        verify(newAuctionFanOut, never()).finish(any(), any(), Mockito.anyBoolean());
+    }
+
+    @Test
+    @DisplayName("중간에 실패했던 경매 알림은 마지막 checkpoint 이후의 구독자부터 이어서 보낸다")
+    void sendNewAuctionAlarmResumeTest() {
+        SubscriberFilterVo subscriberFilterVo = SubscriberFilterVo.builder()
+            .auctionUuid("auctionUuid")
+            .influencerUuid(influencerUuid)
+            .influencerName("아이유")
+            .build();
+        Mockito.when(newAuctionFanOut.resumeAfterId("auctionUuid", 0L)).thenReturn(1000L);
+        Mockito.when(influencerSubscriptionRepository.findSubscriberChunkInRange(
+                eq(influencerUuid), eq(SubscribeState.SUBSCRIBE), eq(1000L), eq(Long.MAX_VALUE),
+                any(Pageable.class)))
+            .thenReturn(List.of(new SubscriberCursorDto(1001L, subscriberUuid)));
+
+        influencerSubscriptionService.sendNewAuctionAlarmToSubscriber(subscriberFilterVo);
+
+        ArgumentCaptor<AlarmDto> captor = ArgumentCaptor.forClass(AlarmDto.class);
+        verify(kafkaProducer).sendMessage(eq(Constant.ALARM), captor.capture());
+        assertEquals(List.of(subscriberUuid), captor.getValue().getReceiverUuids());
+        verify(influencerSubscriptionRepository, never()).findSubscriberChunkInRange(any(), any(),
+            eq(0L), any(), any());
+        //이어서 보내는 fan-out은 shard로 나누지 않는다
+        verify(newAuctionFanOut, never()).dispatch(any());
+        verify(newAuctionFanOut).finish("auctionUuid", "leaseToken", true);
+    }
+
+    @Test
+    @DisplayName("알림을 보내다 실패하면 완료로 표시하지 않고 lease만 푼다")
+    void sendNewAuctionAlarmFailureTest() {
+        SubscriberFilterVo subscriberFilterVo = SubscriberFilterVo.builder()
+            .auctionUuid("auctionUuid")
+            .influencerUuid(influencerUuid)
+            .influencerName("아이유")
+            .build();
+        Mockito.when(influencerSubscriptionRepository.findSubscriberChunkInRange(
+                any(), any(), any(), any(), any()))
+            .thenThrow(new RuntimeException("db error"));
+
+        assertThrows(RuntimeException.class,
+            () -> influencerSubscriptionService.sendNewAuctionAlarmToSubscriber(
+                subscriberFilterVo));
+
+        verify(newAuctionFanOut).finish("auctionUuid", "leaseToken", false);
+    }
+
+    @Test
+    @DisplayName("broker가 알림 메시지를 받지 못하면 checkpoint를 남기지 않고 예외로 재전달을 요청한다")
+    void sendNewAuctionAlarmSendFailureTest() {
+        SubscriberFilterVo subscriberFilterVo = SubscriberFilterVo.builder()
+            .auctionUuid("auctionUuid")
+            .influencerUuid(influencerUuid)
+            .influencerName("아이유")
+            .build();
+        Mockito.when(influencerSubscriptionRepository.findSubscriberChunkInRange(
+                eq(influencerUuid), eq(SubscribeState.SUBSCRIBE), eq(0L), eq(Long.MAX_VALUE),
+                any(Pageable.class)))
+            .thenReturn(List.of(new SubscriberCursorDto(1L, subscriberUuid)));
+        Mockito.when(kafkaProducer.sendMessage(eq(Constant.ALARM), any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        assertThrows(IllegalStateException.class,
+            () -> influencerSubscriptionService.sendNewAuctionAlarmToSubscriber(
+                subscriberFilterVo));
+
+        verify(newAuctionFanOut, never()).checkpoint(any(), any(), Mockito.anyLong());
+        verify(newAuctionFanOut).finish("auctionUuid", "leaseToken", false);
+    }
+
+    @Test
+    @DisplayName("여러 인플루언서의 구독 여부를 한 번의 조회로 요청 순서대로 반환한다")
+    void getSubscriptionStatesTest() {
+        String otherInfluencerUuid = GenerateRandom.influencerUuid();
+        List<String> influencerUuids = List.of(otherInfluencerUuid, influencerUuid);
+
+        Mockito.when(influencerSubscriptionRepository.findInfluencerUuidsIn(
+                subscriberUuid, SubscribeState.SUBSCRIBE, influencerUuids))
+            .thenReturn(List.of(influencerUuid));
+
+        Map<String, Boolean> subscriptionStates = influencerSubscriptionService
+            .getSubscriptionStates(new SubscriptionStatesRequestVo(subscriberUuid, influencerUuids));
+
+        assertThat(subscriptionStates).containsExactly(
+            Map.entry(otherInfluencerUuid, false), Map.entry(influencerUuid, true));
+        verify(influencerSubscriptionRepository, times(1)).findInfluencerUuidsIn(
+            any(), any(), any());
+        verify(influencerSubscriptionRepository, never()).findBySubscriberUuidAndInfluencerUuid(
+            any(), any());
+    }
+
+    @Test
+    @DisplayName("bloom filter가 모두 걸러내면 DB를 조회하지 않고 false를 반환한다")
+    void getSubscriptionStatesBloomFilterNegativeTest() {
+        Mockito.when(subscriptionBloomFilter.mightContain(subscriberUuid, influencerUuid))
+            .thenReturn(false);
+
+        Map<String, Boolean> subscriptionStates = influencerSubscriptionService
+            .getSubscriptionStates(
+                new SubscriptionStatesRequestVo(subscriberUuid, List.of(influencerUuid)));
+
+        assertThat(subscriptionStates).containsExactly(Map.entry(influencerUuid, false));
+        verify(influencerSubscriptionRepository, never()).findInfluencerUuidsIn(
+            any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("한 번에 조회할 수 있는 인플루언서 수를 넘으면 예외를 발생시킨다")
+    void getSubscriptionStatesTooManyInfluencersTest() {
+        List<String> influencerUuids = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            influencerUuids.add(GenerateRandom.influencerUuid() + i);
+        }
+
+        assertThrows(CustomException.class, () -> influencerSubscriptionService
+            .getSubscriptionStates(new SubscriptionStatesRequestVo(subscriberUuid, influencerUuids)));
+    }
+
+    @Test
+    @DisplayName("구독하면 구독자 수를 늘리고 구독 취소하면 줄인다")
+    void subscriberCountTransitionTest() {
+        Mockito.when(influencerSubscriptionRepository.upsertSubscribe(subscriberUuid,
+            influencerUuid)).thenReturn(Optional.of(true));
+        Mockito.when(influencerSubscriptionRepository.unsubscribeIfSubscribed(subscriberUuid,
+            influencerUuid)).thenReturn(1);
+        InfluencerSubscribeRequestDto influencerSubscribeRequestDto = InfluencerSubscribeRequestDto
+            .builder()
+            .subscriberUuid(subscriberUuid)
+            .influencerUuid(influencerUuid)
+            .build();
+
+        influencerSubscriptionService.subscribe(influencerSubscribeRequestDto);
+        influencerSubscriptionService.unsubscribe(influencerSubscribeRequestDto);
+
+        verify(subscriberCounter).increment(influencerUuid);
+        verify(subscriberCounter).decrement(influencerUuid);
+    }
+
+    @Test
+    @DisplayName("집계된 구독자 수가 있으면 DB를 조회하지 않고 반환한다")
+    void getSubscriberCountFromCounterTest() {
+        Mockito.when(subscriberCounter.getCount(influencerUuid)).thenReturn(42L);
+
+        assertEquals(42L, influencerSubscriptionService.getSubscriberCount(influencerUuid));
+        verify(influencerSubscriptionRepository, never()).countByInfluencerUuidAndState(any(),
+            any());
+    }
+
+    @Test
+    @DisplayName("집계된 구독자 수가 없으면 DB에서 세어 채운다")
+    void getSubscriberCountFromDatabaseTest() {
+        Mockito.when(subscriberCounter.getCount(influencerUuid)).thenReturn(null);
+        Mockito.when(influencerSubscriptionRepository.countByInfluencerUuidAndState(
+            influencerUuid, SubscribeState.SUBSCRIBE)).thenReturn(7L);
+
+        assertEquals(7L, influencerSubscriptionService.getSubscriberCount(influencerUuid));
+        verify(subscriberCounter).putIfAbsent(influencerUuid, 7L);
+    }
+
+    private InfluencerSubscriptionServiceImpl writeBehindService() {
+        Mockito.when(influencerSubscriptionBatchRepository.upsertStates(any()))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        return new InfluencerSubscriptionServiceImpl(influencerSubscriptionRepository,
+            influencerSummaryCache, kafkaProducer, subscriberIndex, subscriptionBloomFilter,
+            subscriberCounter,
+            new SubscriptionWriteBuffer(true, influencerSubscriptionBatchRepository),
+            newAuctionFanOut, outboxPublisher,
+            new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("구독 상태 변경이 커밋되지 않으면 bloom filter, 구독 인덱스, 구독자 수에 반영하지 않는다")
+    void subscribeCommitFailureTest() {
+        Mockito.when(influencerSubscriptionRepository.upsertSubscribe(subscriberUuid,
+            influencerUuid)).thenReturn(Optional.of(true));
+        Mockito.doThrow(new IllegalStateException("commit failed"))
+            .when(transactionManager).commit(any());
+
+        assertThrows(IllegalStateException.class, () -> influencerSubscriptionService.subscribe(
+            InfluencerSubscribeRequestDto.builder()
+                .subscriberUuid(subscriberUuid)
+                .influencerUuid(influencerUuid)
+                .build()));
+
+        verify(subscriptionBloomFilter, never()).put(any(), any());
+        verify(subscriberIndex, never()).add(any(), any());
+        verify(subscriberCounter, never()).increment(any());
+    }
+
+    @Test
+    @DisplayName("write-behind 모드의 구독은 트랜잭션을 열지 않는다")
+    void writeBehindWithoutTransactionTest() {
+        writeBehindService().subscribe(InfluencerSubscribeRequestDto.builder()
+            .subscriberUuid(subscriberUuid)
+            .influencerUuid(influencerUuid)
+            .build());
+
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("write-behind 모드에서는 여러 번 토글해도 flush 때 최종 상태 한 건만 DB에 쓴다")
+    void writeBehindCoalescesTogglesTest() {
+        InfluencerSubscriptionServiceImpl service = writeBehindService();
+        InfluencerSubscribeRequestDto influencerSubscribeRequestDto = InfluencerSubscribeRequestDto
+            .builder()
+            .subscriberUuid(subscriberUuid)
+            .influencerUuid(influencerUuid)
+            .build();
+
+        for (int i = 0; i < 10; i++) {
+            service.subscribe(influencerSubscribeRequestDto);
+            service.unsubscribe(influencerSubscribeRequestDto);
+        }
+        service.subscribe(influencerSubscribeRequestDto);
+
+        //flush 전에도 요청한 상태가 조회된다
+        assertTrue(service.isSubscribed(new IsSubscribedRequestVo(subscriberUuid, influencerUuid)));
+        verify(influencerSubscriptionRepository, never()).upsertSubscribe(any(), any());
+        verify(influencerSubscriptionRepository, never()).unsubscribeIfSubscribed(any(), any());
+
+        service.flushPendingSubscriptions();
+
+        ArgumentCaptor<List<PendingSubscriptionDto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(influencerSubscriptionBatchRepository, times(1)).upsertStates(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(SubscribeState.SUBSCRIBE, captor.getValue().get(0).getState());
+        verify(subscriberCounter, times(1)).increment(influencerUuid);
+        verify(subscriberCounter, never()).decrement(any());
+    }
+
+    @Test
+    @DisplayName("write-behind 모드에서 원래 상태로 돌아온 토글은 DB에 쓰지 않는다")
+    void writeBehindNetNoOpTest() {
+        InfluencerSubscriptionServiceImpl service = writeBehindService();
+        InfluencerSubscribeRequestDto influencerSubscribeRequestDto = InfluencerSubscribeRequestDto
+            .builder()
+            .subscriberUuid(subscriberUuid)
+            .influencerUuid(influencerUuid)
+            .build();
+
+        service.subscribe(influencerSubscribeRequestDto);
+        service.unsubscribe(influencerSubscribeRequestDto);
+        service.flushPendingSubscriptions();
+
+        verify(influencerSubscriptionBatchRepository, never()).upsertStates(any());
+        verify(subscriberCounter, never()).increment(any());
+        assertFalse(service.isSubscribed(new IsSubscribedRequestVo(subscriberUuid, influencerUuid)));
+    }
+
+    @Test
+    @DisplayName("write-behind 모드에서 다른 인스턴스가 먼저 같은 상태로 써서 바뀐 행이 없으면 구독자 수와 인덱스를 갱신하지 않는다")
+    void writeBehindNoRowChangedTest() {
+        InfluencerSubscriptionServiceImpl service = writeBehindService();
+        Mockito.when(influencerSubscriptionBatchRepository.upsertStates(any()))
+            .thenReturn(List.of());
+
+        service.subscribe(InfluencerSubscribeRequestDto.builder()
+            .subscriberUuid(subscriberUuid)
+            .influencerUuid(influencerUuid)
+            .build());
+        service.flushPendingSubscriptions();
+
+        verify(influencerSubscriptionBatchRepository, times(1)).upsertStates(any());
+        verify(subscriberCounter, never()).increment(any());
+        verify(subscriberIndex, never()).add(any(), any());
+        verify(subscriptionBloomFilter, never()).put(any(), any());
+    }
+
+    @Test
+    @DisplayName("write-behind 모드에서도 이미 구독 중이면 예외가 발생하고, 쓰기에 실패한 상태는 다음 flush에 다시 쓴다")
+    void writeBehindDuplicateAndRetryTest() {
+        InfluencerSubscriptionServiceImpl service = writeBehindService();
+        InfluencerSubscribeRequestDto influencerSubscribeRequestDto = InfluencerSubscribeRequestDto
+            .builder()
+            .subscriberUuid(subscriberUuid)
+            .influencerUuid(influencerUuid)
+            .build();
+        Mockito.when(influencerSubscriptionBatchRepository.upsertStates(any()))
+            .thenThrow(new IllegalStateException("db down"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.subscribe(influencerSubscribeRequestDto);
+        assertThrows(CustomException.class, () -> service.subscribe(influencerSubscribeRequestDto));
+
+        service.flushPendingSubscriptions();
+        verify(subscriberCounter, never()).increment(any());
+        assertTrue(service.isSubscribed(new IsSubscribedRequestVo(subscriberUuid, influencerUuid)));
+
+        service.flushPendingSubscriptions();
+        verify(influencerSubscriptionBatchRepository, times(2)).upsertStates(any());
+        verify(subscriberCounter, times(1)).increment(influencerUuid);
+    }
+
+    @Test
+    @DisplayName("구독자가 많은 인플루언서의 새 경매 알림은 직접 보내지 않고 shard로 나누어 발행한다")
+    void sendNewAuctionAlarmShardedTest() {
+        SubscriberFilterVo subscriberFilterVo = SubscriberFilterVo.builder()
+            .auctionUuid("auctionUuid")
+            .influencerUuid(influencerUuid)
+            .influencerName("아이유")
+            .build();
+        Mockito.when(subscriberCounter.getCount(influencerUuid)).thenReturn(50_000L);
+        Mockito.when(newAuctionFanOut.shouldShard(50_000L)).thenReturn(true);
+        Mockito.when(newAuctionFanOut.dispatch(subscriberFilterVo)).thenReturn(5);
+
+        influencerSubscriptionService.sendNewAuctionAlarmToSubscriber(subscriberFilterVo);
+
+        verify(newAuctionFanOut).dispatch(subscriberFilterVo);
+        verify(kafkaProducer, never()).sendMessage(eq(Constant.ALARM), any());
+        verify(influencerSubscriptionRepository, never()).findSubscriberChunkInRange(any(), any(),
+            any(), any(), any());
+        verify(newAuctionFanOut).finish("auctionUuid", "leaseToken", true);
+    }
+
+    @Test
+    @DisplayName("shard를 모두 발행하지 못하면 경매 fan-out을 완료로 표시하지 않는다")
+    void sendNewAuctionAlarmShardDispatchFailureTest() {
+        SubscriberFilterVo subscriberFilterVo = SubscriberFilterVo.builder()
+            .auctionUuid("auctionUuid")
+            .influencerUuid(influencerUuid)
+            .influencerName("아이유")
+            .build();
+        Mockito.when(subscriberCounter.getCount(influencerUuid)).thenReturn(50_000L);
+        Mockito.when(newAuctionFanOut.shouldShard(50_000L)).thenReturn(true);
+        Mockito.when(newAuctionFanOut.dispatch(subscriberFilterVo))
+            .thenThrow(new IllegalStateException("new auction fan-out send failed"));
+
+        assertThrows(IllegalStateException.class,
+            () -> influencerSubscriptionService.sendNewAuctionAlarmToSubscriber(
+                subscriberFilterVo));
+
+        verify(newAuctionFanOut).finish("auctionUuid", "leaseToken", false);
+    }
+
+    @Test
+    @DisplayName("shard 구간의 구독자에게만 알림을 보내고 shard 완료를 기록한다")
+    void sendNewAuctionAlarmShardTest() {
+        NewAuctionShardDto newAuctionShardDto = NewAuctionShardDto.builder()
+            .auctionUuid("auctionUuid")
+            .influencerUuid(influencerUuid)
+            .influencerName("아이유")
+            .shardIndex(1)
+            .shardCount(3)
+            .afterId(99L)
+            .beforeId(200L)
+            .build();
+        Mockito.when(influencerSubscriptionRepository.findSubscriberChunkInRange(
+                eq(influencerUuid), eq(SubscribeState.SUBSCRIBE), eq(99L), eq(200L),
+                any(Pageable.class)))
+            .thenReturn(List.of(new SubscriberCursorDto(100L, "subscriber1"),
+                new SubscriberCursorDto(150L, "subscriber2")));
+
+        influencerSubscriptionService.sendNewAuctionAlarmShard(newAuctionShardDto);
+
+        ArgumentCaptor<AlarmDto> captor = ArgumentCaptor.forClass(AlarmDto.class);
+        verify(kafkaProducer).sendMessage(eq(Constant.ALARM), captor.capture());
+        assertEquals(List.of("subscriber1", "subscriber2"), captor.getValue().getReceiverUuids());
+        verify(newAuctionFanOut).completeShard(newAuctionShardDto, 2);
+        verify(newAuctionFanOut).checkpoint("auctionUuid:1", "leaseToken", 150L);
+        verify(newAuctionFanOut).finish("auctionUuid:1", "leaseToken", true);
+    }
 }
@@ -0,0 +1,181 @@
+package com.leeforgiveness.memberservice.subscribe;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.leeforgiveness.memberservice.config.FlywayConfig;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 마이그레이션을 적용한 embedded postgres에 구독 데이터를 채우고, repository 메서드가 실행하는 쿼리의 실행 계획에
+ * Seq Scan이 없는지 확인한다. 전체 행을 집계하는 countByState, countGroupByInfluencerUuid는 제외한다.
+ */
+public class InfluencerSubscriptionQueryPlanTest {
+
+    private static final String SUBSCRIBER_UUID = "subscriber-42";
+    private static final String INFLUENCER_UUID = "inf0000042";
+
+    //repository 메서드 이름 -> hibernate가 만드는 것과 같은 모양의 쿼리 (PREPARE 파라미터 타입, 쿼리, EXECUTE 인자)
+    private static final Map<String, String[]> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("findBySubscriberUuidAndInfluencerUuid", new String[]{
+            "varchar, varchar",
+            "select * from influencer_subscription where subscriber_uuid = $1 and influencer_uuid = $2",
+            "'" + SUBSCRIBER_UUID + "', '" + INFLUENCER_UUID + "'"});
+        QUERIES.put("findBySubscriberUuidAndState", new String[]{
+            "varchar, varchar",
+            "select * from influencer_subscription where subscriber_uuid = $1 and state = $2",
+            "'" + SUBSCRIBER_UUID + "', 'SUBSCRIBE'"});
+        QUERIES.put("findByInfluencerUuidAndState", new String[]{
+            "varchar, varchar",
+            "select * from influencer_subscription where influencer_uuid = $1 and state = $2",
+            "'" + INFLUENCER_UUID + "', 'SUBSCRIBE'"});
+        QUERIES.put("countByInfluencerUuidAndState", new String[]{
+            "varchar, varchar",
+            "select count(*) from influencer_subscription where influencer_uuid = $1 and state = $2",
+            "'" + INFLUENCER_UUID + "', 'SUBSCRIBE'"});
+        QUERIES.put("findInfluencerUuidsIn", new String[]{
+            "varchar, varchar, varchar, varchar, varchar",
+            "select influencer_uuid from influencer_subscription "
+                + "where subscriber_uuid = $1 and state = $2 and influencer_uuid in ($3, $4, $5)",
+            "'" + SUBSCRIBER_UUID + "', 'SUBSCRIBE', '" + INFLUENCER_UUID
+                + "', 'inf0000242', 'inf0000442'"});
+        QUERIES.put("findSubscriptionKeysAfter", new String[]{
+            "varchar, bigint, bigint",
+            "select influencer_subscription_id, subscriber_uuid, influencer_uuid "
+                + "from influencer_subscription where state = $1 "
+                + "and influencer_subscription_id > $2 order by influencer_subscription_id limit $3",
+            "'SUBSCRIBE', 50000, 1000"});
+        QUERIES.put("findBySubscriberUuidAndStateAndIdLessThanOrderByIdDesc", new String[]{
+            "varchar, varchar, bigint, bigint",
+            "select * from influencer_subscription "
+                + "where subscriber_uuid = $1 and state = $2 and influencer_subscription_id < $3 "
+                + "order by influencer_subscription_id desc limit $4",
+            "'" + SUBSCRIBER_UUID + "', 'SUBSCRIBE', 9223372036854775807, 21"});
+        QUERIES.put("findSubscriberChunkInRange", new String[]{
+            "varchar, varchar, bigint, bigint, bigint",
+            "select influencer_subscription_id, subscriber_uuid from influencer_subscription "
+                + "where influencer_uuid = $1 and state = $2 and influencer_subscription_id > $3 "
+                + "and influencer_subscription_id < $4 order by influencer_subscription_id limit $5",
+            "'" + INFLUENCER_UUID + "', 'SUBSCRIBE', 0, 50000, 1000"});
+        QUERIES.put("findShardStartIds", new String[]{
+            "varchar, int",
+            "select s.id from (select influencer_subscription_id as id, "
+                + "row_number() over (order by influencer_subscription_id) as rn "
+                + "from influencer_subscription "
+                + "where influencer_uuid = $1 and state = 'SUBSCRIBE') s "
+                + "where (s.rn - 1) % $2 = 0 order by s.id",
+            "'" + INFLUENCER_UUID + "', 10"});
+        QUERIES.put("upsertSubscribe", new String[]{
+            "varchar, varchar",
+            "insert into influencer_subscription "
+                + "(subscriber_uuid, influencer_uuid, state, created_at, updated_at) "
+                + "values ($1, $2, 'SUBSCRIBE', now(), now()) "
+                + "on conflict (subscriber_uuid, influencer_uuid) do update "
+                + "set state = excluded.state, updated_at = excluded.updated_at "
+                + "where influencer_subscription.state <> excluded.state "
+                + "returning (xmax = 0)",
+            "'" + SUBSCRIBER_UUID + "', '" + INFLUENCER_UUID + "'"});
+        QUERIES.put("unsubscribeIfSubscribed", new String[]{
+            "varchar, varchar",
+            "update influencer_subscription set state = 'UNSUBSCRIBE', updated_at = now() "
+                + "where subscriber_uuid = $1 and influencer_uuid = $2 and state = 'SUBSCRIBE'",
+            "'" + SUBSCRIBER_UUID + "', '" + INFLUENCER_UUID + "'"});
+    }
+
+    private static EmbeddedPostgres embeddedPostgres;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        try {
+            embeddedPostgres = EmbeddedPostgres.builder().start();
+        } catch (Exception e) {
+            assumeTrue(false, "embedded postgres를 실행할 수 없는 환경: " + e.getMessage());
+        }
+
+        Flyway.configure()
+            .dataSource(embeddedPostgres.getPostgresDatabase())
+            .configuration(FlywayConfig.POSTGRESQL_LOCK_CONFIGURATION)
+            .load()
+            .migrate();
+
+        //구독자 20,000명 x 5명, 인플루언서 1,000명 x 100명. 5건 중 1건은 구독 취소 상태
+        try (Connection connection = embeddedPostgres.getPostgresDatabase().getConnection();
+            Statement statement = connection.createStatement()) {
+            statement.execute("insert into influencer_subscription "
+                + "(subscriber_uuid, influencer_uuid, state, created_at, updated_at) "
+                + "select 'subscriber-' || (g % 20000), "
+                + "'inf' || lpad(((g % 20000 + (g / 20000) * 200) % 1000)::text, 7, '0'), "
+                + "case when g % 5 = 0 then 'UNSUBSCRIBE' else 'SUBSCRIBE' end, now(), now() "
+                + "from generate_series(0, 99999) g");
+            statement.execute("vacuum analyze influencer_subscription");
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() throws Exception {
+        if (embeddedPostgres != null) {
+            embeddedPostgres.close();
+        }
+    }
+
+    @Test
+    @DisplayName("파라미터 값을 알고 세운 실행 계획에 Seq Scan이 없다")
+    void customPlanTest() throws Exception {
+        assertNoSequentialScan("force_custom_plan");
+    }
+
+    @Test
+    @DisplayName("prepared statement를 재사용할 때의 generic 실행 계획에도 Seq Scan이 없다")
+    void genericPlanTest() throws Exception {
+        assertNoSequentialScan("force_generic_plan");
+    }
+
+    private void assertNoSequentialScan(String planCacheMode) throws Exception {
+        List<String> sequentialScans = new ArrayList<>();
+        try (Connection connection = embeddedPostgres.getPostgresDatabase().getConnection();
+            Statement statement = connection.createStatement()) {
+            statement.execute("set plan_cache_mode = " + planCacheMode);
+
+            for (Map.Entry<String, String[]> query : QUERIES.entrySet()) {
+                String name = query.getKey();
+                String[] prepared = query.getValue();
+                statement.execute(
+                    "prepare " + name + "(" + prepared[0] + ") as " + prepared[1]);
+
+                String plan = explain(statement,
+                    "explain execute " + name + "(" + prepared[2] + ")");
+                if (plan.contains("Seq Scan")) {
+                    sequentialScans.add(name + "\n" + plan);
+                }
+                statement.execute("deallocate " + name);
+            }
+        }
+
+        assertTrue(sequentialScans.isEmpty(),
+            "Seq Scan 실행 계획:\n" + String.join("\n", sequentialScans));
+    }
+
+    private static String explain(Statement statement, String sql) throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,223 @@
+package com.leeforgiveness.memberservice.subscribe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.leeforgiveness.memberservice.subscribe.application.ExternalService;
+import com.leeforgiveness.memberservice.subscribe.application.InfluencerSummaryCache;
+import com.leeforgiveness.memberservice.subscribe.dto.InfluencerSummaryDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class InfluencerSummaryCacheTest {
+
+    private static final String AUTHORIZATION = "authorization";
+    private static final int THREADS = 32;
+
+    private final ExternalService externalService = Mockito.mock(ExternalService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InfluencerSummaryCache influencerSummaryCache;
+    private ExecutorService executorService;
+
+    @BeforeEach
+    public void setUp() {
+        influencerSummaryCache = new InfluencerSummaryCache(externalService, meterRegistry, 100,
+            600, 86400, 20, 100, "");
+        executorService = Executors.newFixedThreadPool(THREADS);
+        //요청한 uuid 순서대로 이름이 uuid와 같은 요약을 돌려준다
+        Mockito.when(externalService.getInfluencerSummariseAsync(anyString(), anyList()))
+            .thenAnswer(invocation -> {
+                List<String> influencerUuids = invocation.getArgument(1);
+                return CompletableFuture.supplyAsync(() -> influencerUuids.stream()
+                        .map(InfluencerSummaryCacheTest::summary).toList(),
+                    CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+            });
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        executorService.shutdownNow();
+        executorService.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private static InfluencerSummaryDto summary(String name) {
+        return new InfluencerSummaryDto(name, "https://" + name + ".png");
+    }
+
+    private static List<String> names(List<InfluencerSummaryDto> influencerSummaries) {
+        return influencerSummaries.stream().map(InfluencerSummaryDto::getName).toList();
+    }
+
+    @Test
+    @DisplayName("캐시에 없는 uuid만 요청하고 결과를 요청한 순서대로 합친다")
+    void fetchMissingOnlyTest() {
+        influencerSummaryCache.getInfluencerSummarise(AUTHORIZATION, List.of("inf1", "inf2"));
+        List<InfluencerSummaryDto> influencerSummaries = influencerSummaryCache
+            .getInfluencerSummarise(AUTHORIZATION, List.of("inf2", "inf3", "inf1"));
+
+        assertEquals(List.of("inf2", "inf3", "inf1"), names(influencerSummaries));
+        verify(externalService).getInfluencerSummariseAsync(AUTHORIZATION, List.of("inf3"));
+        //첫 조회 2건 miss, 두 번째 조회 2건 hit 1건 miss
+        assertEquals(0.4, meterRegistry.get("cache.hit.ratio").gauge().value(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("같은 uuid를 동시에 조회해도 원격 요청은 한 번만 보낸다")
+    void singleFlightTest() throws Exception {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<List<InfluencerSummaryDto>>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                return influencerSummaryCache.getInfluencerSummarise(AUTHORIZATION,
+                    List.of("inf1"));
+            }));
+        }
+        startLatch.countDown();
+
+        for (Future<List<InfluencerSummaryDto>> future : futures) {
+            assertEquals(List.of("inf1"), names(future.get(5, TimeUnit.SECONDS)));
+        }
+        verify(externalService, times(1)).getInfluencerSummariseAsync(any(), any());
+    }
+
+    @Test
+    @DisplayName("batch window 안에 들어온 여러 요청의 uuid를 모아 한 번에 요청한다")
+    void batchWindowTest() throws Exception {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<List<InfluencerSummaryDto>>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            List<String> influencerUuids = List.of("inf" + i, "inf" + (i + 10));
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                return influencerSummaryCache.getInfluencerSummarise(AUTHORIZATION,
+                    influencerUuids);
+            }));
+        }
+        startLatch.countDown();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(List.of("inf" + i, "inf" + (i + 10)),
+                names(futures.get(i).get(5, TimeUnit.SECONDS)));
+        }
+
+        ArgumentCaptor<List<String>> uuidsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(externalService, Mockito.atLeastOnce())
+            .getInfluencerSummariseAsync(any(), uuidsCaptor.capture());
+        Set<String> requestedUuids = new HashSet<>();
+        uuidsCaptor.getAllValues().forEach(requestedUuids::addAll);
+        assertEquals(20, requestedUuids.size());
+        //20ms window 안에 모두 들어오므로 요청 수가 호출 수보다 훨씬 적다
+        assertTrue(uuidsCaptor.getAllValues().size() < 10);
+    }
+
+    @Test
+    @DisplayName("여러 회원이 같은 uuid를 동시에 조회해도 원격 요청은 한 번만 보낸다")
+    void singleFlightAcrossAuthorizationsTest() throws Exception {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<List<InfluencerSummaryDto>>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String authorization = "token" + i;
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                return influencerSummaryCache.getInfluencerSummarise(authorization,
+                    List.of("inf1"));
+            }));
+        }
+        startLatch.countDown();
+
+        for (Future<List<InfluencerSummaryDto>> future : futures) {
+            assertEquals(List.of("inf1"), names(future.get(5, TimeUnit.SECONDS)));
+        }
+        verify(externalService, times(1)).getInfluencerSummariseAsync(any(), any());
+    }
+
+    @Test
+    @DisplayName("서비스 토큰이 설정되어 있으면 모은 요청을 그 토큰으로 보낸다")
+    void serviceAuthorizationTest() {
+        influencerSummaryCache = new InfluencerSummaryCache(externalService, meterRegistry, 100,
+            600, 86400, 20, 100, "service");
+
+        assertEquals(List.of("inf1"), names(influencerSummaryCache
+            .getInfluencerSummarise(AUTHORIZATION, List.of("inf1"))));
+        verify(externalService).getInfluencerSummariseAsync("service", List.of("inf1"));
+    }
+
+    @Test
+    @DisplayName("batch를 보낸 토큰이 거부되면 다른 회원은 자기 토큰으로 자기 uuid만 다시 조회한다")
+    void rejectedAuthorizationTest() {
+        Mockito.when(externalService.getInfluencerSummariseAsync("first",
+                List.of("inf1", "inf2")))
+            .thenReturn(CompletableFuture.failedFuture(
+                new ExternalService.UnauthorizedException(401)));
+
+        CompletableFuture<List<InfluencerSummaryDto>> first = influencerSummaryCache
+            .getInfluencerSummariseAsync("first", List.of("inf1"));
+        CompletableFuture<List<InfluencerSummaryDto>> second = influencerSummaryCache
+            .getInfluencerSummariseAsync("second", List.of("inf1", "inf2"));
+
+        assertEquals(List.of(), names(first.join()));
+        assertEquals(List.of("inf1", "inf2"), names(second.join()));
+        verify(externalService).getInfluencerSummariseAsync("first", List.of("inf1", "inf2"));
+        verify(externalService).getInfluencerSummariseAsync("second", List.of("inf1", "inf2"));
+        verify(externalService, times(2)).getInfluencerSummariseAsync(any(), any());
+    }
+
+    @Test
+    @DisplayName("조회하지 못한 uuid는 캐시하지 않고 빼고 반환하며, 다음 조회 때 다시 요청한다")
+    void partiallyUnavailableTest() {
+        List<InfluencerSummaryDto> partial = new ArrayList<>();
+        partial.add(summary("inf1"));
+        partial.add(null);
+        Mockito.when(externalService.getInfluencerSummariseAsync(AUTHORIZATION,
+                List.of("inf1", "inf2")))
+            .thenReturn(CompletableFuture.completedFuture(partial));
+
+        assertEquals(List.of("inf1"), names(influencerSummaryCache
+            .getInfluencerSummarise(AUTHORIZATION, List.of("inf1", "inf2"))));
+
+        assertEquals(List.of("inf1", "inf2"), names(influencerSummaryCache
+            .getInfluencerSummarise(AUTHORIZATION, List.of("inf1", "inf2"))));
+        verify(externalService).getInfluencerSummariseAsync(AUTHORIZATION, List.of("inf2"));
+    }
+
+    @Test
+    @DisplayName("캐시가 만료된 뒤 원격 조회에 실패하면 마지막으로 조회한 값으로 응답한다")
+    void staleFallbackTest() {
+        //ttl 0초: 매번 다시 조회한다
+        influencerSummaryCache = new InfluencerSummaryCache(externalService, meterRegistry, 100,
+            0, 86400, 20, 100, "");
+        influencerSummaryCache.getInfluencerSummarise(AUTHORIZATION, List.of("inf1"));
+
+        List<InfluencerSummaryDto> unavailable = new ArrayList<>();
+        unavailable.add(null);
+        unavailable.add(null);
+        Mockito.when(externalService.getInfluencerSummariseAsync(AUTHORIZATION,
+                List.of("inf1", "inf2")))
+            .thenReturn(CompletableFuture.completedFuture(unavailable));
+
+        assertEquals(List.of("inf1"), names(influencerSummaryCache
+            .getInfluencerSummarise(AUTHORIZATION, List.of("inf1", "inf2"))));
+        assertEquals(1.0, meterRegistry.get("cache.stale.served").counter().count());
+    }
+}
@@ -0,0 +1,73 @@
+package com.leeforgiveness.memberservice.subscribe;
+
+import com.leeforgiveness.memberservice.subscribe.application.InfluencerSummaryDecoder;
+import com.leeforgiveness.memberservice.subscribe.dto.InfluencerSummaryDto;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 인플루언서 요약 응답 body를 org.json으로 파싱하는 기존 경로와 Jackson streaming 경로를 비교한다.
+ * 응답 크기는 한 페이지(20), chunk 하나(50), 구독이 많은 회원의 전체 목록(1000) 기준이다.
+ * ./gradlew jmh -PjmhIncludes=InfluencerSummaryDecodeBenchmark (할당량은 -prof gc를 추가)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class InfluencerSummaryDecodeBenchmark {
+
+    @Param({"20", "50", "1000"})
+    private int summaryCount;
+
+    private byte[] responseBody;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < summaryCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"인플루언서").append(i)
+                .append("\",\"profileImage\":\"https://racehorseteam.store/images/profile/")
+                .append(UUID.randomUUID()).append(".png\"}");
+        }
+        responseBody = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    //BodyHandlers.ofString() -> JSONArray -> InfluencerSummaryDto.fromJson
+    @Benchmark
+    public List<InfluencerSummaryDto> orgJson() {
+        JSONArray jsonArray = new JSONArray(new String(responseBody, StandardCharsets.UTF_8));
+        List<InfluencerSummaryDto> influencerSummaries = new ArrayList<>();
+        for (int i = 0; i < jsonArray.length(); i++) {
+            influencerSummaries.add(InfluencerSummaryDto.fromJson(jsonArray.getJSONObject(i)));
+        }
+        return influencerSummaries;
+    }
+
+    //BodyHandlers.ofInputStream() -> InfluencerSummaryDecoder
+    @Benchmark
+    public List<InfluencerSummaryDto> jacksonStreaming() throws IOException {
+        return InfluencerSummaryDecoder.decode(new ByteArrayInputStream(responseBody));
+    }
+}
@@ -0,0 +1,155 @@
+package com.leeforgiveness.memberservice.subscribe;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import com.leeforgiveness.memberservice.common.GenerateRandom;
+import com.leeforgiveness.memberservice.common.kafka.KafkaProducerCluster;
+import com.leeforgiveness.memberservice.common.outbox.OutboxPublisher;
+import com.leeforgiveness.memberservice.subscribe.application.InfluencerSubscriptionServiceImpl;
+import com.leeforgiveness.memberservice.subscribe.application.InfluencerSummaryCache;
+import com.leeforgiveness.memberservice.subscribe.application.NewAuctionFanOut;
+import com.leeforgiveness.memberservice.subscribe.domain.InfluencerSubscription;
+import com.leeforgiveness.memberservice.subscribe.dto.SubscriptionKeyDto;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.InfluencerSubscriptionBatchRepository;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.InfluencerSubscriptionRepository;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriberCounter;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriberIndex;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriptionBloomFilter;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriptionWriteBuffer;
+import com.leeforgiveness.memberservice.subscribe.state.SubscribeState;
+import com.leeforgiveness.memberservice.subscribe.vo.IsSubscribedRequestVo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 비구독자 조회가 대부분인 상세 페이지 트래픽에서 bloom filter 경로와 repository 경로의 isSubscribed를 비교한다.
+ * repository는 dbLatencyMicros 만큼 대기해 DB 왕복을 흉내낸다. ./gradlew jmh -PjmhIncludes=IsSubscribedBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(8)
+public class IsSubscribedBenchmark {
+
+    private static final int SUBSCRIPTIONS = 100_000;
+
+    @Param({"0", "500"})
+    private long dbLatencyMicros;
+
+    //조회 중 실제 구독자인 비율(%)
+    @Param({"10"})
+    private int subscribedPercent;
+
+    private InfluencerSubscriptionServiceImpl bloomFilterService;
+    private InfluencerSubscriptionServiceImpl repositoryService;
+    private List<IsSubscribedRequestVo> subscribedRequests;
+    private List<IsSubscribedRequestVo> notSubscribedRequests;
+
+    @Setup
+    public void setUp() {
+        Set<String> subscriptionKeys = new HashSet<>();
+        List<SubscriptionKeyDto> subscriptionKeyDtos = new ArrayList<>();
+        subscribedRequests = new ArrayList<>();
+        notSubscribedRequests = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIPTIONS; i++) {
+            String subscriberUuid = GenerateRandom.subscriberUuid();
+            String influencerUuid = GenerateRandom.influencerUuid();
+            subscriptionKeys.add(subscriberUuid + ":" + influencerUuid);
+            subscriptionKeyDtos.add(new SubscriptionKeyDto((long) i, subscriberUuid, influencerUuid));
+            subscribedRequests.add(new IsSubscribedRequestVo(subscriberUuid, influencerUuid));
+            notSubscribedRequests.add(new IsSubscribedRequestVo(GenerateRandom.subscriberUuid(),
+                influencerUuid));
+        }
+
+        InfluencerSubscriptionRepository repository = Mockito.mock(
+            InfluencerSubscriptionRepository.class);
+        Mockito.when(repository.findBySubscriberUuidAndInfluencerUuid(anyString(), anyString()))
+            .thenAnswer(invocation -> {
+                if (dbLatencyMicros > 0) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(dbLatencyMicros));
+                }
+                String key = invocation.getArgument(0) + ":" + invocation.getArgument(1);
+                return subscriptionKeys.contains(key)
+                    ? Optional.of(InfluencerSubscription.builder()
+                    .state(SubscribeState.SUBSCRIBE).build())
+                    : Optional.empty();
+            });
+
+        //최근 추가분이 없는 redis
+        StringRedisTemplate stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        Mockito.when(stringRedisTemplate.opsForZSet()).thenReturn(Mockito.mock(ZSetOperations.class));
+        Mockito.when(stringRedisTemplate.opsForValue())
+            .thenReturn(Mockito.mock(ValueOperations.class));
+        SubscriptionBloomFilter subscriptionBloomFilter = new SubscriptionBloomFilter(
+            stringRedisTemplate,
+            Mockito.mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry());
+        subscriptionBloomFilter.beginRebuild(SUBSCRIPTIONS);
+        subscriptionBloomFilter.putAllToRebuild(subscriptionKeyDtos);
+        subscriptionBloomFilter.completeRebuild();
+
+        SubscriptionBloomFilter passThroughFilter = Mockito.mock(SubscriptionBloomFilter.class);
+        Mockito.when(passThroughFilter.mightContain(any(), any())).thenReturn(true);
+
+        bloomFilterService = newService(repository, subscriptionBloomFilter);
+        repositoryService = newService(repository, passThroughFilter);
+    }
+
+    private static InfluencerSubscriptionServiceImpl newService(
+        InfluencerSubscriptionRepository repository,
+        SubscriptionBloomFilter subscriptionBloomFilter) {
+        return new InfluencerSubscriptionServiceImpl(repository,
+            Mockito.mock(InfluencerSummaryCache.class), Mockito.mock(KafkaProducerCluster.class),
+            Mockito.mock(SubscriberIndex.class), subscriptionBloomFilter,
+            Mockito.mock(SubscriberCounter.class), new SubscriptionWriteBuffer(false,
+                Mockito.mock(InfluencerSubscriptionBatchRepository.class)),
+            Mockito.mock(NewAuctionFanOut.class), Mockito.mock(OutboxPublisher.class),
+            new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)));
+    }
+
+    private IsSubscribedRequestVo nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<IsSubscribedRequestVo> requests = random.nextInt(100) < subscribedPercent
+            ? subscribedRequests : notSubscribedRequests;
+        return requests.get(random.nextInt(requests.size()));
+    }
+
+    @Benchmark
+    public Boolean isSubscribedWithBloomFilter() {
+        return bloomFilterService.isSubscribed(nextRequest());
+    }
+
+    @Benchmark
+    public Boolean isSubscribedWithRepository() {
+        return repositoryService.isSubscribed(nextRequest());
+    }
+}
@@ -0,0 +1,175 @@
+package com.leeforgiveness.memberservice.subscribe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.leeforgiveness.memberservice.common.kafka.KafkaProducerCluster;
+import com.leeforgiveness.memberservice.common.kafka.Topics.Constant;
+import com.leeforgiveness.memberservice.common.kafka.dto.NewAuctionShardDto;
+import com.leeforgiveness.memberservice.common.kafka.dto.SubscriberFilterVo;
+import com.leeforgiveness.memberservice.subscribe.application.NewAuctionFanOut;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.FanOutTracker;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.InfluencerSubscriptionRepository;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class NewAuctionFanOutTest {
+
+    private InfluencerSubscriptionRepository influencerSubscriptionRepository = Mockito.mock(
+        InfluencerSubscriptionRepository.class);
+    private KafkaProducerCluster kafkaProducer = Mockito.mock(KafkaProducerCluster.class);
+    private FanOutTracker fanOutTracker = Mockito.mock(FanOutTracker.class);
+    private NewAuctionFanOut newAuctionFanOut;
+
+    private final SubscriberFilterVo subscriberFilterVo = SubscriberFilterVo.builder()
+        .auctionUuid("auctionUuid")
+        .influencerUuid("influencer")
+        .influencerName("아이유")
+        .build();
+
+    @BeforeEach
+    public void setUp() {
+        newAuctionFanOut = new NewAuctionFanOut(influencerSubscriptionRepository, kafkaProducer,
+            fanOutTracker, 100, 200);
+        Mockito.when(fanOutTracker.start(anyString(), any()))
+            .thenAnswer(invocation -> invocation.getArgument(1));
+        Mockito.when(kafkaProducer.sendMessage(anyString(), anyString(), any()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    @DisplayName("구독자 수가 기준 이상일 때만 shard로 나눈다")
+    void shouldShardTest() {
+        assertFalse(newAuctionFanOut.shouldShard(199));
+        assertTrue(newAuctionFanOut.shouldShard(200));
+    }
+
+    @Test
+    @DisplayName("shard 시작 id로 겹치지 않는 구간을 만들어 shard마다 다른 key로 발행한다")
+    void dispatchTest() {
+        Mockito.when(influencerSubscriptionRepository.findShardStartIds("influencer", 100))
+            .thenReturn(List.of(1L, 150L, 420L));
+
+        int shardCount = newAuctionFanOut.dispatch(subscriberFilterVo);
+
+        assertEquals(3, shardCount);
+        verify(fanOutTracker).start("auctionUuid", List.of(1L, 150L, 420L));
+        ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object> shardCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaProducer, times(3)).sendMessage(eq(Constant.NEW_AUCTION_SHARD),
+            keyCaptor.capture(), shardCaptor.capture());
+
+        assertEquals(List.of("auctionUuid:0", "auctionUuid:1", "auctionUuid:2"),
+            keyCaptor.getAllValues());
+        List<NewAuctionShardDto> shards = shardCaptor.getAllValues().stream()
+            .map(NewAuctionShardDto.class::cast).toList();
+        assertEquals(0L, shards.get(0).getAfterId());
+        assertEquals(150L, shards.get(0).getBeforeId());
+        assertEquals(149L, shards.get(1).getAfterId());
+        assertEquals(420L, shards.get(1).getBeforeId());
+        assertEquals(419L, shards.get(2).getAfterId());
+        assertEquals(Long.MAX_VALUE, shards.get(2).getBeforeId());
+    }
+
+    @Test
+    @DisplayName("다시 시작한 fan-out은 처음 기록한 shard 구간으로 발행한다")
+    void dispatchResumeTest() {
+        Mockito.when(influencerSubscriptionRepository.findShardStartIds("influencer", 100))
+            .thenReturn(List.of(1L, 160L, 430L));
+        Mockito.when(fanOutTracker.start("auctionUuid", List.of(1L, 160L, 430L)))
+            .thenReturn(List.of(1L, 150L, 420L));
+
+        newAuctionFanOut.dispatch(subscriberFilterVo);
+
+        ArgumentCaptor<Object> shardCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaProducer, times(3)).sendMessage(eq(Constant.NEW_AUCTION_SHARD), anyString(),
+            shardCaptor.capture());
+        assertEquals(150L, ((NewAuctionShardDto) shardCaptor.getAllValues().get(0)).getBeforeId());
+    }
+
+    @Test
+    @DisplayName("shard 하나라도 broker에 기록되지 않으면 예외를 던진다")
+    void dispatchSendFailureTest() {
+        Mockito.when(influencerSubscriptionRepository.findShardStartIds("influencer", 100))
+            .thenReturn(List.of(1L, 150L));
+        Mockito.when(kafkaProducer.sendMessage(anyString(), eq("auctionUuid:1"), any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        assertThrows(IllegalStateException.class,
+            () -> newAuctionFanOut.dispatch(subscriberFilterVo));
+    }
+
+    @Test
+    @DisplayName("구독자가 없으면 아무것도 발행하지 않는다")
+    void dispatchWithoutSubscriberTest() {
+        Mockito.when(influencerSubscriptionRepository.findShardStartIds("influencer", 100))
+            .thenReturn(List.of());
+
+        assertEquals(0, newAuctionFanOut.dispatch(subscriberFilterVo));
+        verify(fanOutTracker, never()).start(anyString(), any());
+        verify(kafkaProducer, never()).sendMessage(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("완료된 fan-out은 시작하지 않는다")
+    void beginTest() {
+        Mockito.when(fanOutTracker.isCompleted("completed")).thenReturn(true);
+        Mockito.when(fanOutTracker.tryLease("auctionUuid")).thenReturn("leaseToken");
+
+        assertEquals(null, newAuctionFanOut.begin("completed"));
+        assertEquals("leaseToken", newAuctionFanOut.begin("auctionUuid"));
+        verify(fanOutTracker, never()).tryLease("completed");
+    }
+
+    @Test
+    @DisplayName("다른 consumer가 lease를 잡고 있으면 재전달받도록 예외를 던진다")
+    void beginLeasedElsewhereTest() {
+        Mockito.when(fanOutTracker.tryLease("leased")).thenReturn(null);
+
+        assertThrows(NewAuctionFanOut.FanOutInProgressException.class,
+            () -> newAuctionFanOut.begin("leased"));
+    }
+
+    @Test
+    @DisplayName("redis를 쓸 수 없으면 중복 방지 없이 처음부터 보낸다")
+    void beginWithoutRedisTest() {
+        Mockito.when(fanOutTracker.isCompleted(anyString()))
+            .thenThrow(new RuntimeException("redis down"));
+        Mockito.when(fanOutTracker.getCheckpoint(anyString()))
+            .thenThrow(new RuntimeException("redis down"));
+
+        assertEquals("", newAuctionFanOut.begin("auctionUuid"));
+        assertEquals(0L, newAuctionFanOut.resumeAfterId("auctionUuid", 0L));
+    }
+
+    @Test
+    @DisplayName("checkpoint가 shard 구간 시작보다 뒤면 checkpoint부터 이어서 보낸다")
+    void resumeAfterIdTest() {
+        Mockito.when(fanOutTracker.getCheckpoint("auctionUuid:1")).thenReturn(180L);
+
+        assertEquals(180L, newAuctionFanOut.resumeAfterId("auctionUuid:1", 99L));
+        assertEquals(99L, newAuctionFanOut.resumeAfterId("auctionUuid:2", 99L));
+    }
+
+    @Test
+    @DisplayName("실패한 fan-out은 완료로 표시하지 않고 lease만 푼다")
+    void finishTest() {
+        newAuctionFanOut.finish("auctionUuid", "leaseToken", false);
+
+        verify(fanOutTracker, never()).markCompleted(any());
+        verify(fanOutTracker).releaseLease("auctionUuid", "leaseToken");
+    }
+}
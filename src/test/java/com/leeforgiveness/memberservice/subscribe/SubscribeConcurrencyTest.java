@@ -0,0 +1,319 @@
+package com.leeforgiveness.memberservice.subscribe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import com.leeforgiveness.memberservice.common.GenerateRandom;
+import com.leeforgiveness.memberservice.common.exception.CustomException;
+import com.leeforgiveness.memberservice.common.exception.ResponseStatus;
+import com.leeforgiveness.memberservice.common.kafka.KafkaProducerCluster;
+import com.leeforgiveness.memberservice.common.outbox.OutboxPublisher;
+import com.leeforgiveness.memberservice.config.FlywayConfig;
+import com.leeforgiveness.memberservice.subscribe.application.InfluencerSubscriptionServiceImpl;
+import com.leeforgiveness.memberservice.subscribe.application.InfluencerSummaryCache;
+import com.leeforgiveness.memberservice.subscribe.application.NewAuctionFanOut;
+import com.leeforgiveness.memberservice.subscribe.dto.InfluencerSubscribeRequestDto;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.InfluencerSubscriptionBatchRepository;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.InfluencerSubscriptionRepository;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriberCounter;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriberIndex;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriptionBloomFilter;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriptionWriteBuffer;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 같은 (구독자, 인플루언서)에 대한 구독/구독 취소가 동시에 들어와도 상태 전이가 한 번씩만 일어나는지 확인한다.
+ * repository의 upsertSubscribe, unsubscribeIfSubscribed는 @Query에 적힌 쿼리 그대로 마이그레이션을 적용한
+ * embedded postgres에서 실행해, unique 제약과 ON CONFLICT ... RETURNING (xmax = 0)의 동작을 확인한다.
+ */
+public class SubscribeConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    private static EmbeddedPostgres embeddedPostgres;
+    private static HikariDataSource dataSource;
+    private static NamedParameterJdbcTemplate jdbcTemplate;
+    private static String upsertSubscribeSql;
+    private static String unsubscribeIfSubscribedSql;
+
+    private final AtomicLong subscriberCount = new AtomicLong();
+    //upsertSubscribe가 반환한 값. 새로 추가되면 true, 구독 취소 상태에서 바뀌면 false, 이미 구독 중이면 empty
+    private final Queue<Optional<Boolean>> upsertResults = new ConcurrentLinkedQueue<>();
+    private InfluencerSubscriptionRepository influencerSubscriptionRepository;
+    private SubscriberCounter subscriberCounter;
+    private InfluencerSubscriptionServiceImpl influencerSubscriptionService;
+    private ExecutorService executorService;
+
+    private String subscriberUuid;
+    private String influencerUuid;
+
+    @BeforeAll
+    public static void startDatabase() throws Exception {
+        try {
+            embeddedPostgres = EmbeddedPostgres.builder().start();
+        } catch (Exception e) {
+            assumeTrue(false, "embedded postgres를 실행할 수 없는 환경: " + e.getMessage());
+        }
+
+        Flyway.configure()
+            .dataSource(embeddedPostgres.getPostgresDatabase())
+            .configuration(FlywayConfig.POSTGRESQL_LOCK_CONFIGURATION)
+            .load()
+            .migrate();
+
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setDataSource(embeddedPostgres.getPostgresDatabase());
+        hikariConfig.setMaximumPoolSize(THREADS);
+        dataSource = new HikariDataSource(hikariConfig);
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+
+        upsertSubscribeSql = InfluencerSubscriptionRepository.class
+            .getMethod("upsertSubscribe", String.class, String.class)
+            .getAnnotation(Query.class).value();
+        unsubscribeIfSubscribedSql = InfluencerSubscriptionRepository.class
+            .getMethod("unsubscribeIfSubscribed", String.class, String.class)
+            .getAnnotation(Query.class).value();
+    }
+
+    @AfterAll
+    public static void stopDatabase() throws Exception {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        if (embeddedPostgres != null) {
+            embeddedPostgres.close();
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.getJdbcTemplate().update("delete from influencer_subscription");
+
+        influencerSubscriptionRepository = Mockito.mock(InfluencerSubscriptionRepository.class);
+        Mockito.when(influencerSubscriptionRepository.upsertSubscribe(anyString(), anyString()))
+            .thenAnswer(invocation -> upsertSubscribe(invocation.getArgument(0),
+                invocation.getArgument(1)));
+        Mockito.when(
+                influencerSubscriptionRepository.unsubscribeIfSubscribed(anyString(), anyString()))
+            .thenAnswer(invocation -> jdbcTemplate.update(unsubscribeIfSubscribedSql,
+                params(invocation.getArgument(0), invocation.getArgument(1))));
+
+        subscriberCounter = Mockito.mock(SubscriberCounter.class);
+        Mockito.doAnswer(invocation -> subscriberCount.incrementAndGet())
+            .when(subscriberCounter).increment(anyString());
+        Mockito.doAnswer(invocation -> subscriberCount.decrementAndGet())
+            .when(subscriberCounter).decrement(anyString());
+
+        influencerSubscriptionService = service(new SubscriptionWriteBuffer(false,
+            Mockito.mock(InfluencerSubscriptionBatchRepository.class)));
+        executorService = Executors.newFixedThreadPool(THREADS);
+
+        subscriberUuid = GenerateRandom.subscriberUuid();
+        influencerUuid = GenerateRandom.influencerUuid();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        executorService.shutdownNow();
+        executorService.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private InfluencerSubscriptionServiceImpl service(
+        SubscriptionWriteBuffer subscriptionWriteBuffer) {
+        return new InfluencerSubscriptionServiceImpl(
+            influencerSubscriptionRepository, Mockito.mock(InfluencerSummaryCache.class),
+            Mockito.mock(KafkaProducerCluster.class), Mockito.mock(SubscriberIndex.class),
+            Mockito.mock(SubscriptionBloomFilter.class), subscriberCounter,
+            subscriptionWriteBuffer, Mockito.mock(NewAuctionFanOut.class),
+            Mockito.mock(OutboxPublisher.class),
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+    }
+
+    //인스턴스마다 따로 있는 write-behind 버퍼가 같은 DB에 쓴다
+    private InfluencerSubscriptionServiceImpl writeBehindReplica() {
+        return service(new SubscriptionWriteBuffer(true, new InfluencerSubscriptionBatchRepository(
+            jdbcTemplate.getJdbcTemplate(), Mockito.mock(OutboxPublisher.class))));
+    }
+
+    private Optional<Boolean> upsertSubscribe(String subscriberUuid, String influencerUuid) {
+        List<Boolean> returned = jdbcTemplate.queryForList(upsertSubscribeSql,
+            params(subscriberUuid, influencerUuid), Boolean.class);
+        Optional<Boolean> result = returned.stream().findFirst();
+        upsertResults.add(result);
+        return result;
+    }
+
+    private static Map<String, String> params(String subscriberUuid, String influencerUuid) {
+        return Map.of("subscriberUuid", subscriberUuid, "influencerUuid", influencerUuid);
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject(
+            "select count(*) from influencer_subscription where subscriber_uuid = ? "
+                + "and influencer_uuid = ?", Integer.class, subscriberUuid, influencerUuid);
+    }
+
+    private String state() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject(
+            "select state from influencer_subscription where subscriber_uuid = ? "
+                + "and influencer_uuid = ?", String.class, subscriberUuid, influencerUuid);
+    }
+
+    private InfluencerSubscribeRequestDto request() {
+        return InfluencerSubscribeRequestDto.builder()
+            .subscriberUuid(subscriberUuid)
+            .influencerUuid(influencerUuid)
+            .build();
+    }
+
+    @Test
+    @DisplayName("같은 인플루언서를 동시에 여러 번 구독해도 한 번만 구독되고 나머지는 중복 구독 예외가 발생한다")
+    void concurrentSubscribeTest() throws Exception {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<ResponseStatus>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                try {
+                    influencerSubscriptionService.subscribe(request());
+                    return null;
+                } catch (CustomException e) {
+                    return e.getResponseStatus();
+                }
+            }));
+        }
+        startLatch.countDown();
+
+        int successCount = 0;
+        int duplicateCount = 0;
+        for (Future<ResponseStatus> future : futures) {
+            ResponseStatus responseStatus = future.get(10, TimeUnit.SECONDS);
+            if (responseStatus == null) {
+                successCount++;
+            } else if (responseStatus == ResponseStatus.DUPLICATE_SUBSCRIBE) {
+                duplicateCount++;
+            }
+        }
+
+        assertEquals(1, successCount);
+        assertEquals(THREADS - 1, duplicateCount);
+        assertEquals(1, rowCount());
+        assertEquals("SUBSCRIBE", state());
+        assertEquals(1L, subscriberCount.get());
+        //새로 추가된 한 건만 true를 받고, 나머지는 이미 구독 중이라 아무 행도 받지 못한다
+        assertEquals(1, upsertResults.stream().filter(Optional::isPresent).count());
+        assertEquals(Optional.of(true), upsertResults.stream().filter(Optional::isPresent)
+            .findFirst().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("구독과 구독 취소가 동시에 섞여 들어와도 구독자 수는 최종 구독 상태와 일치한다")
+    void concurrentToggleTest() throws Exception {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                for (int j = 0; j < 50; j++) {
+                    try {
+                        if (ThreadLocalRandom.current().nextBoolean()) {
+                            influencerSubscriptionService.subscribe(request());
+                        } else {
+                            influencerSubscriptionService.unsubscribe(request());
+                        }
+                    } catch (CustomException e) {
+                        //이미 같은 상태인 요청은 예외로 끝난다
+                    }
+                }
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, rowCount());
+        long expectedCount = "SUBSCRIBE".equals(state()) ? 1L : 0L;
+        assertEquals(expectedCount, subscriberCount.get());
+        //행은 한 번만 추가되고, 이후의 구독은 모두 구독 취소 상태에서 바뀐 것이다
+        assertEquals(1, upsertResults.stream().filter(result -> result.equals(Optional.of(true)))
+            .count());
+    }
+
+    @Test
+    @DisplayName("구독 취소한 인플루언서를 동시에 다시 구독하면 한 번만 false를 반환하고 행은 늘지 않는다")
+    void concurrentResubscribeTest() throws Exception {
+        influencerSubscriptionService.subscribe(request());
+        influencerSubscriptionService.unsubscribe(request());
+        upsertResults.clear();
+
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                try {
+                    influencerSubscriptionService.subscribe(request());
+                } catch (CustomException e) {
+                    //이미 다시 구독된 경우
+                }
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, rowCount());
+        assertEquals("SUBSCRIBE", state());
+        assertEquals(List.of(Optional.of(false)), upsertResults.stream()
+            .filter(Optional::isPresent).toList());
+        assertEquals(1L, subscriberCount.get());
+    }
+
+    @Test
+    @DisplayName("두 인스턴스의 write-behind 버퍼가 같은 구독을 각각 flush해도 실제로 바뀐 한 번만 구독자 수에 반영한다")
+    void writeBehindReplicasTest() {
+        InfluencerSubscriptionServiceImpl firstReplica = writeBehindReplica();
+        InfluencerSubscriptionServiceImpl secondReplica = writeBehindReplica();
+
+        firstReplica.subscribe(request());
+        secondReplica.subscribe(request());
+        firstReplica.flushPendingSubscriptions();
+        secondReplica.flushPendingSubscriptions();
+
+        assertEquals(1, rowCount());
+        assertEquals("SUBSCRIBE", state());
+        assertEquals(1L, subscriberCount.get());
+    }
+}
@@ -0,0 +1,111 @@
+package com.leeforgiveness.memberservice.subscribe;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.leeforgiveness.memberservice.subscribe.application.InfluencerSubscriptionService;
+import com.leeforgiveness.memberservice.subscribe.application.SubscriptionScheduler;
+import com.leeforgiveness.memberservice.subscribe.dto.SubscriberCountDto;
+import com.leeforgiveness.memberservice.subscribe.dto.SubscriptionKeyDto;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.InfluencerSubscriptionRepository;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriberCounter;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriberIndex;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriptionBloomFilter;
+import com.leeforgiveness.memberservice.subscribe.infrastructure.SubscriptionWriteBuffer;
+import com.leeforgiveness.memberservice.subscribe.state.SubscribeState;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+public class SubscriptionSchedulerTest {
+
+    private InfluencerSubscriptionRepository influencerSubscriptionRepository = Mockito.mock(
+        InfluencerSubscriptionRepository.class);
+    private SubscriberIndex subscriberIndex = Mockito.mock(SubscriberIndex.class);
+    private SubscriberCounter subscriberCounter = Mockito.mock(SubscriberCounter.class);
+    private SubscriptionScheduler subscriptionScheduler;
+
+    private final List<SubscriptionKeyDto> subscriptionKeys = List.of(
+        new SubscriptionKeyDto(1L, "subscriber", "influencer"));
+
+    @BeforeEach
+    public void setUp() {
+        subscriptionScheduler = new SubscriptionScheduler(influencerSubscriptionRepository,
+            subscriberIndex, Mockito.mock(SubscriptionBloomFilter.class),
+            subscriberCounter, Mockito.mock(SubscriptionWriteBuffer.class),
+            Mockito.mock(InfluencerSubscriptionService.class));
+        Mockito.when(subscriberIndex.tryLockRebuild()).thenReturn("token");
+        Mockito.when(subscriberIndex.beginRebuild()).thenReturn(7L);
+        Mockito.when(subscriberIndex.renewRebuildLock("token")).thenReturn(true);
+        Mockito.when(influencerSubscriptionRepository.findSubscriptionKeysAfter(
+                eq(SubscribeState.SUBSCRIBE), eq(0L), any()))
+            .thenReturn(subscriptionKeys);
+    }
+
+    @Test
+    @DisplayName("구독 인덱스는 새 generation에 만든 뒤 교체하고, 잡은 토큰으로 잠금을 푼다")
+    void rebuildSubscriberIndexTest() {
+        Mockito.when(subscriberIndex.completeRebuild(7L)).thenReturn(true);
+
+        subscriptionScheduler.rebuildSubscriberIndex();
+
+        InOrder inOrder = inOrder(subscriberIndex);
+        inOrder.verify(subscriberIndex).beginRebuild();
+        inOrder.verify(subscriberIndex).addAllToRebuild(7L, subscriptionKeys);
+        inOrder.verify(subscriberIndex).completeRebuild(7L);
+        inOrder.verify(subscriberIndex).deleteStaleGenerations();
+        inOrder.verify(subscriberIndex).unlockRebuild("token");
+        verify(subscriberIndex, never()).markNotReady();
+    }
+
+    @Test
+    @DisplayName("재구축 중 잠금을 잃으면 교체하지 않고 새 generation을 버린다")
+    void rebuildSubscriberIndexLockLostTest() {
+        Mockito.when(subscriberIndex.renewRebuildLock("token")).thenReturn(false);
+
+        subscriptionScheduler.rebuildSubscriberIndex();
+
+        verify(subscriberIndex, never()).completeRebuild(anyLong());
+        verify(subscriberIndex).abortRebuild(7L);
+        verify(subscriberIndex).unlockRebuild("token");
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 재구축 중이면 아무것도 하지 않는다")
+    void rebuildSubscriberIndexLockedTest() {
+        Mockito.when(subscriberIndex.tryLockRebuild()).thenReturn(null);
+
+        subscriptionScheduler.rebuildSubscriberIndex();
+
+        verify(subscriberIndex, never()).beginRebuild();
+        verify(subscriberIndex, never()).addAllToRebuild(anyLong(), any());
+        verify(subscriberIndex, never()).unlockRebuild(any());
+    }
+
+    @Test
+    @DisplayName("구독자 수 재집계는 집계 전에 증감 기록을 시작하고, 집계 결과를 반영한 뒤 끝낸다")
+    void reconcileSubscriberCountsTest() {
+        Mockito.when(subscriberCounter.tryLockReconcile()).thenReturn(true);
+        Mockito.when(influencerSubscriptionRepository.countGroupByInfluencerUuid(
+                SubscribeState.SUBSCRIBE))
+            .thenReturn(List.of(new SubscriberCountDto("influencer", 3L)));
+
+        subscriptionScheduler.reconcileSubscriberCounts();
+
+        InOrder inOrder = inOrder(subscriberCounter, influencerSubscriptionRepository);
+        inOrder.verify(subscriberCounter).beginReconcile();
+        inOrder.verify(influencerSubscriptionRepository)
+            .countGroupByInfluencerUuid(SubscribeState.SUBSCRIBE);
+        inOrder.verify(subscriberCounter).replaceAll(Map.of("influencer", 3L));
+        inOrder.verify(subscriberCounter).endReconcile();
+        inOrder.verify(subscriberCounter).unlockReconcile();
+    }
+}